@@ -0,0 +1,378 @@
+package Engine.Board;
+
+import Engine.Pieces.Alliance;
+
+/**
+ * Attack Tables
+ *
+ * <p>
+ * A class of precomputed attack sets for use in move generation. Each attack
+ * set is a bitboard of the coordinates that a {@code Piece} on a given
+ * coordinate attacks.
+ *
+ * <p>
+ * The attack sets of the sliding pieces ({@code Rook}, {@code Bishop} and
+ * {@code Queen}) depend on the occupancy of the {@code Board}, since a ray
+ * stops at the first occupied coordinate. These sets are looked up with
+ * magic bitboards. Only the occupied coordinates that may block a ray from
+ * the slider's coordinate (its relevant occupancy, excluding the last
+ * coordinate of each ray) matter. Multiplying the relevant occupancy by a
+ * magic number gathers those bits into the high bits of the product, and a
+ * shift turns them into an index into a table of attack sets that was
+ * filled at class initialization. A slider's attack set therefore costs one
+ * multiply, one shift and one lookup, rather than a walk along each ray.
+ *
+ * <p>
+ * The magic numbers below were found by trial with sparse random candidates
+ * for this engine's coordinate system (coordinate 0 is a8), so published
+ * magic numbers, which assume that coordinate 0 is a1, do not apply. Only
+ * the attack tables are filled at class initialization.
+ *
+ * <p>
+ * The attack sets of the leaping pieces ({@code Knight}, {@code King} and
+ * the capturing {@code Pawn}) do not depend on occupancy, so they are simply
+ * tabulated by coordinate, both as bitboards and as lists of coordinates.
+ */
+public final class AttackTables {
+
+    /**
+     * Row and column offsets for the rays of each sliding piece.
+     */
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    /**
+     * Row and column offsets for the leaps of each leaping piece. A white
+     * {@code Pawn} captures toward row 0 and a black {@code Pawn} toward row 7.
+     */
+    private static final int[][] KNIGHT_LEAPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_LEAPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] WHITE_PAWN_LEAPS = {{-1, -1}, {-1, 1}};
+    private static final int[][] BLACK_PAWN_LEAPS = {{1, -1}, {1, 1}};
+
+    /**
+     * The attack sets of the leaping pieces on each coordinate, as bitboards.
+     * The {@code Pawn} attack sets are indexed by {@code Alliance} first, white
+     * then black.
+     */
+    private static final long[] KNIGHT_ATTACKS = new long[Utility.NUMBER_OF_TILES];
+    private static final long[] KING_ATTACKS = new long[Utility.NUMBER_OF_TILES];
+    private static final long[][] PAWN_ATTACKS = new long[2][Utility.NUMBER_OF_TILES];
+
+    /**
+     * The attack sets of the leaping pieces on each coordinate, as ascending
+     * lists of coordinates.
+     */
+    private static final int[][] KNIGHT_SQUARES = new int[Utility.NUMBER_OF_TILES][];
+    private static final int[][] KING_SQUARES = new int[Utility.NUMBER_OF_TILES][];
+    private static final int[][][] PAWN_SQUARES = new int[2][Utility.NUMBER_OF_TILES][];
+
+    /**
+     * The relevant occupancy masks of each sliding piece on each coordinate.
+     */
+    private static final long[] ROOK_MASKS = new long[Utility.NUMBER_OF_TILES];
+    private static final long[] BISHOP_MASKS = new long[Utility.NUMBER_OF_TILES];
+
+    /**
+     * The magic numbers of each sliding piece on each coordinate.
+     */
+    private static final long[] ROOK_MAGICS = {
+            0x1080002080400010L, 0x54C0004290006004L, 0x0A00084020801200L, 0x0200100408220040L,
+            0xC080040002800801L, 0x0300040028010082L, 0x8880010002004080L, 0x4100002480410012L,
+            0x0004800028804001L, 0x0000400020100041L, 0x0010802000100083L, 0x8182002200084010L,
+            0x8005000802110004L, 0x2260808002000400L, 0x0118800100020080L, 0x0002000401248052L,
+            0x0109010020488000L, 0x8001050040008020L, 0x0060014030080040L, 0x0C08008008100480L,
+            0x0002020020041008L, 0x8100818014000200L, 0x0000040012180150L, 0x28800A0002841143L,
+            0x8C00400080008032L, 0x0100200040005004L, 0x0000100080802000L, 0x12D0000900210010L,
+            0x1100080080800400L, 0x0C2A000A00103C08L, 0x0080D00400020128L, 0x8029000100108052L,
+            0xA04000408080002CL, 0x0042400082802010L, 0x0400801000802004L, 0x0081800802801000L,
+            0x0010800402800801L, 0x400C020080800400L, 0x0000080204000110L, 0x210105204200019CL,
+            0x0000400080208008L, 0x8200400083050024L, 0x2180804012020023L, 0x0108090010010020L,
+            0x0008000402004040L, 0x0001000400030008L, 0x0001080210040001L, 0x00050102A8460004L,
+            0x0840400080083080L, 0x1000E00840100540L, 0x08A300B020004300L, 0x2334080080100080L,
+            0x0000080004008080L, 0x8113000802040100L, 0x0000800100020080L, 0x9000010054009200L,
+            0x1800810015E20042L, 0x4000201900400081L, 0x0005082000114101L, 0x04042100D0000409L,
+            0x0002001085200802L, 0x8301000802040001L, 0x4024021000A14804L, 0x0080084080210406L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x8040290602004108L, 0x2020C42092004006L, 0x0004442400480000L, 0x00580A1220815000L,
+            0x0004030811080800L, 0x000202100420000CL, 0x0021881808240000L, 0x2802004914012000L,
+            0x000020E002020844L, 0x8A20020252021E00L, 0x08220800B4008815L, 0x04060404008E1842L,
+            0x9800440422020202L, 0x0000110442400001L, 0x080104023824040CL, 0x8400020201610804L,
+            0x4004602048104108L, 0x001000040408404DL, 0x0028808408021100L, 0x120800040A404880L,
+            0x4808200402082002L, 0x0001800101600600L, 0x200100008C01A004L, 0x8178200049141004L,
+            0x4111040210208212L, 0x4830B00004044082L, 0x1800300048004140L, 0x200108005C004190L,
+            0x0050040003802100L, 0x0008088021300402L, 0x0218020415014140L, 0x0254050400844108L,
+            0x1411900800405840L, 0x02A1102A80888829L, 0x4601280801040422L, 0x00062008001101D0L,
+            0x0808010040100802L, 0x0C10004201404100L, 0x80084109250C0081L, 0x0100820848420100L,
+            0x00C0841108084002L, 0x0800480208041004L, 0x0024A0140A009001L, 0x8040034208008080L,
+            0x0040400109088200L, 0x1040149080808104L, 0x0060548492003080L, 0x0208280508400022L,
+            0x00C0820820848200L, 0x9010840108822040L, 0x8010402402482000L, 0x101214A020881080L,
+            0x051002D0E0220202L, 0x0000102001610001L, 0x2010A00810808008L, 0xA002080141020002L,
+            0x6020138088201040L, 0x0000A10082100200L, 0x0010000104010400L, 0x0020000020411084L,
+            0x0200080820204110L, 0x0002441011302320L, 0x0100100408080050L, 0x1010B00080848A00L
+    };
+
+    /**
+     * The shifts of each sliding piece on each coordinate. A shift is 64 less
+     * the number of bits in the corresponding relevant occupancy mask.
+     */
+    private static final int[] ROOK_SHIFTS = new int[Utility.NUMBER_OF_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[Utility.NUMBER_OF_TILES];
+
+    /**
+     * The attack sets of each sliding piece on each coordinate, indexed by magic index.
+     */
+    private static final long[][] ROOK_ATTACKS = new long[Utility.NUMBER_OF_TILES][];
+    private static final long[][] BISHOP_ATTACKS = new long[Utility.NUMBER_OF_TILES][];
+
+    /**
+     * The coordinates strictly between each pair of coordinates which share a
+     * row, a column or a diagonal, or the empty set for any other pair.
+     */
+    private static final long[][] BETWEEN = new long[Utility.NUMBER_OF_TILES][Utility.NUMBER_OF_TILES];
+
+    /** Static initialization block */
+    static {
+        for(int i = 0; i < Utility.NUMBER_OF_TILES; i++) {
+            ROOK_MASKS[i] = relevantOccupancy(i, ROOK_DIRECTIONS);
+            ROOK_SHIFTS[i] = Long.SIZE - BitBoard.count(ROOK_MASKS[i]);
+            ROOK_ATTACKS[i] = fillAttacks(i, ROOK_DIRECTIONS, ROOK_MASKS[i], ROOK_MAGICS[i], ROOK_SHIFTS[i]);
+            BISHOP_MASKS[i] = relevantOccupancy(i, BISHOP_DIRECTIONS);
+            BISHOP_SHIFTS[i] = Long.SIZE - BitBoard.count(BISHOP_MASKS[i]);
+            BISHOP_ATTACKS[i] = fillAttacks(i, BISHOP_DIRECTIONS, BISHOP_MASKS[i], BISHOP_MAGICS[i], BISHOP_SHIFTS[i]);
+            KNIGHT_ATTACKS[i] = leapingAttacks(i, KNIGHT_LEAPS);
+            KNIGHT_SQUARES[i] = squaresOf(KNIGHT_ATTACKS[i]);
+            KING_ATTACKS[i] = leapingAttacks(i, KING_LEAPS);
+            KING_SQUARES[i] = squaresOf(KING_ATTACKS[i]);
+            PAWN_ATTACKS[0][i] = leapingAttacks(i, WHITE_PAWN_LEAPS);
+            PAWN_SQUARES[0][i] = squaresOf(PAWN_ATTACKS[0][i]);
+            PAWN_ATTACKS[1][i] = leapingAttacks(i, BLACK_PAWN_LEAPS);
+            PAWN_SQUARES[1][i] = squaresOf(PAWN_ATTACKS[1][i]);
+        }
+        for(int i = 0; i < Utility.NUMBER_OF_TILES; i++) {
+            for(int j = 0; j < Utility.NUMBER_OF_TILES; j++) {
+                final int rowDistance = (i >>> 3) - (j >>> 3);
+                final int columnDistance = (i & 7) - (j & 7);
+                if(i == j) continue;
+                if(rowDistance == 0 || columnDistance == 0) {
+                    BETWEEN[i][j] = rookAttacks(i, BitBoard.squareOf(j)) & rookAttacks(j, BitBoard.squareOf(i));
+                } else if(Math.abs(rowDistance) == Math.abs(columnDistance)) {
+                    BETWEEN[i][j] = bishopAttacks(i, BitBoard.squareOf(j)) & bishopAttacks(j, BitBoard.squareOf(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private AttackTables() {
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Rook}.
+     *
+     * @param coordinate the coordinate of the {@code Rook}
+     * @param occupancy the occupancy bitboard of the {@code Board}
+     * @return the coordinates attacked by the {@code Rook} as a bitboard
+     */
+    public static long rookAttacks(final int coordinate, final long occupancy) {
+        return ROOK_ATTACKS[coordinate][(int) (
+                ((occupancy & ROOK_MASKS[coordinate]) * ROOK_MAGICS[coordinate]) >>> ROOK_SHIFTS[coordinate]
+        )];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Bishop}.
+     *
+     * @param coordinate the coordinate of the {@code Bishop}
+     * @param occupancy the occupancy bitboard of the {@code Board}
+     * @return the coordinates attacked by the {@code Bishop} as a bitboard
+     */
+    public static long bishopAttacks(final int coordinate, final long occupancy) {
+        return BISHOP_ATTACKS[coordinate][(int) (
+                ((occupancy & BISHOP_MASKS[coordinate]) * BISHOP_MAGICS[coordinate]) >>> BISHOP_SHIFTS[coordinate]
+        )];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Queen}.
+     *
+     * @param coordinate the coordinate of the {@code Queen}
+     * @param occupancy the occupancy bitboard of the {@code Board}
+     * @return the coordinates attacked by the {@code Queen} as a bitboard
+     */
+    public static long queenAttacks(final int coordinate, final long occupancy) {
+        return rookAttacks(coordinate, occupancy) | bishopAttacks(coordinate, occupancy);
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Knight}.
+     *
+     * @param coordinate the coordinate of the {@code Knight}
+     * @return the coordinates attacked by the {@code Knight} as a bitboard
+     */
+    public static long knightAttacks(final int coordinate) {
+        return KNIGHT_ATTACKS[coordinate];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code King}.
+     *
+     * @param coordinate the coordinate of the {@code King}
+     * @return the coordinates attacked by the {@code King} as a bitboard
+     */
+    public static long kingAttacks(final int coordinate) {
+        return KING_ATTACKS[coordinate];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Pawn}, that is, the
+     * coordinates it may capture on.
+     *
+     * @param coordinate the coordinate of the {@code Pawn}
+     * @param alliance the {@code Alliance} of the {@code Pawn}
+     * @return the coordinates attacked by the {@code Pawn} as a bitboard
+     */
+    public static long pawnAttacks(final int coordinate, final Alliance alliance) {
+        return PAWN_ATTACKS[alliance.isWhite()? 0: 1][coordinate];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Knight} as a list of
+     * coordinates. The list is shared and must not be modified.
+     *
+     * @param coordinate the coordinate of the {@code Knight}
+     * @return the coordinates attacked by the {@code Knight}, in ascending order
+     */
+    public static int[] knightSquares(final int coordinate) {
+        return KNIGHT_SQUARES[coordinate];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code King} as a list of
+     * coordinates. The list is shared and must not be modified.
+     *
+     * @param coordinate the coordinate of the {@code King}
+     * @return the coordinates attacked by the {@code King}, in ascending order
+     */
+    public static int[] kingSquares(final int coordinate) {
+        return KING_SQUARES[coordinate];
+    }
+
+    /**
+     * A method to look up the attack set of a {@code Pawn} as a list of
+     * coordinates. The list is shared and must not be modified.
+     *
+     * @param coordinate the coordinate of the {@code Pawn}
+     * @param alliance the {@code Alliance} of the {@code Pawn}
+     * @return the coordinates attacked by the {@code Pawn}, in ascending order
+     */
+    public static int[] pawnSquares(final int coordinate, final Alliance alliance) {
+        return PAWN_SQUARES[alliance.isWhite()? 0: 1][coordinate];
+    }
+
+    /**
+     * A method to look up the coordinates strictly between two coordinates
+     * which share a row, a column or a diagonal. A piece on any of them blocks
+     * a slider on one coordinate from attacking the other.
+     *
+     * @param from one coordinate
+     * @param to the other coordinate
+     * @return the coordinates in between as a bitboard, or the empty set if
+     *         the coordinates are not aligned
+     */
+    public static long between(final int from, final int to) {
+        return BETWEEN[from][to];
+    }
+
+    /*
+     * A method to walk each ray from a coordinate until it leaves the board or
+     * reaches an occupied coordinate (inclusive). This is the slow reference
+     * that the magic tables are filled from.
+     */
+    private static long slidingAttacks(final int coordinate,
+                                       final int[][] directions,
+                                       final long occupancy) {
+        long attacks = BitBoard.EMPTY;
+        for(final int[] direction: directions) {
+            int row = (coordinate >>> 3) + direction[0];
+            int column = (coordinate & 7) + direction[1];
+            while(row >= 0 && row < 8 && column >= 0 && column < 8) {
+                final long square = BitBoard.squareOf((row << 3) + column);
+                attacks |= square;
+                if((occupancy & square) != 0) break;
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /*
+     * A method to collect every leap from a coordinate which stays on the
+     * board.
+     */
+    private static long leapingAttacks(final int coordinate, final int[][] leaps) {
+        long attacks = BitBoard.EMPTY;
+        for(final int[] leap: leaps) {
+            final int row = (coordinate >>> 3) + leap[0];
+            final int column = (coordinate & 7) + leap[1];
+            if(row >= 0 && row < 8 && column >= 0 && column < 8) attacks |= BitBoard.squareOf((row << 3) + column);
+        }
+        return attacks;
+    }
+
+    /*
+     * A method to list the coordinates of a bitboard in ascending order.
+     */
+    private static int[] squaresOf(long bitBoard) {
+        final int[] squares = new int[BitBoard.count(bitBoard)];
+        for(int i = 0; bitBoard != BitBoard.EMPTY; i++, bitBoard = BitBoard.withoutFirstSquare(bitBoard)) {
+            squares[i] = BitBoard.firstSquare(bitBoard);
+        }
+        return squares;
+    }
+
+    /*
+     * A method to compute the relevant occupancy mask of a coordinate: every
+     * coordinate along each ray except for the last one, since a blocker on
+     * the edge of the board never hides anything.
+     */
+    private static long relevantOccupancy(final int coordinate, final int[][] directions) {
+        long mask = BitBoard.EMPTY;
+        for(final int[] direction: directions) {
+            int row = (coordinate >>> 3) + direction[0];
+            int column = (coordinate & 7) + direction[1];
+            while(row + direction[0] >= 0 && row + direction[0] < 8 &&
+                  column + direction[1] >= 0 && column + direction[1] < 8) {
+                mask |= BitBoard.squareOf((row << 3) + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /*
+     * A method to fill the attack table of a coordinate. Every subset of the
+     * relevant occupancy mask is enumerated with the carry-rippler trick and
+     * stored at its magic index.
+     */
+    private static long[] fillAttacks(final int coordinate,
+                                      final int[][] directions,
+                                      final long mask,
+                                      final long magic,
+                                      final int shift) {
+        final long[] table = new long[1 << BitBoard.count(mask)];
+        long subset = BitBoard.EMPTY;
+        do {
+            table[(int) ((subset * magic) >>> shift)] = slidingAttacks(coordinate, directions, subset);
+            subset = (subset - mask) & mask;
+        } while(subset != BitBoard.EMPTY);
+        return table;
+    }
+
+}
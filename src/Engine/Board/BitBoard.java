@@ -0,0 +1,114 @@
+package Engine.Board;
+
+import Engine.Pieces.Alliance;
+import Engine.Pieces.Piece.PieceType;
+
+/**
+ * Bit Board
+ *
+ * <p>
+ * A class full of static bitboard support functions. A bitboard is a
+ * {@code long} in which each bit stands for a single {@code Tile}. Bit
+ * {@code i} is set if and only if the {@code Tile} at coordinate {@code i}
+ * belongs to the set that the bitboard describes. Since coordinate 0 is a8
+ * and coordinate 63 is h1, the least significant bit is the upper-left
+ * corner of the {@code Board} as drawn by the GUI.
+ *
+ * <p>
+ * A {@code Board} is described by twelve piece bitboards (one for each
+ * {@code PieceType} of each {@code Alliance}) and two occupancy bitboards
+ * (one for each {@code Alliance}). Set operations on these bitboards are
+ * single machine instructions, which makes them far cheaper to query than
+ * a {@code List} of {@code Tile} objects.
+ */
+public final class BitBoard {
+
+    /**
+     * The empty set.
+     */
+    public static final long EMPTY = 0L;
+
+    /**
+     * The number of piece bitboards needed to describe a {@code Board}.
+     */
+    public static final int NUMBER_OF_PIECE_BOARDS = 12;
+
+    /**
+     * Bitboards for the first and eighth columns (the a-file and h-file).
+     */
+    public static final long FIRST_COLUMN = 0x0101010101010101L;
+    public static final long EIGHTH_COLUMN = 0x8080808080808080L;
+
+    /**
+     * Prevents instantiation.
+     */
+    private BitBoard() {
+    }
+
+    /**
+     * A method to get the single-bit bitboard of a coordinate.
+     *
+     * @param coordinate the coordinate
+     * @return a bitboard containing only the given coordinate
+     */
+    public static long squareOf(final int coordinate) {
+        return 1L << coordinate;
+    }
+
+    /**
+     * A method to determine whether or not a bitboard contains a coordinate.
+     *
+     * @param bitBoard the bitboard to test
+     * @param coordinate the coordinate to look for
+     * @return whether or not the coordinate is in the set
+     */
+    public static boolean contains(final long bitBoard, final int coordinate) {
+        return (bitBoard & (1L << coordinate)) != 0;
+    }
+
+    /**
+     * A method to get the lowest coordinate contained by a non-empty bitboard.
+     *
+     * @param bitBoard a non-empty bitboard
+     * @return the lowest coordinate in the set
+     */
+    public static int firstSquare(final long bitBoard) {
+        return Long.numberOfTrailingZeros(bitBoard);
+    }
+
+    /**
+     * A method to remove the lowest coordinate from a bitboard. Together with
+     * {@link BitBoard#firstSquare(long)}, this allows a client to loop over
+     * the coordinates of a set without any allocation.
+     *
+     * @param bitBoard the bitboard
+     * @return the bitboard without its lowest coordinate
+     */
+    public static long withoutFirstSquare(final long bitBoard) {
+        return bitBoard & (bitBoard - 1);
+    }
+
+    /**
+     * A method to count the coordinates in a bitboard.
+     *
+     * @param bitBoard the bitboard
+     * @return the number of coordinates in the set
+     */
+    public static int count(final long bitBoard) {
+        return Long.bitCount(bitBoard);
+    }
+
+    /**
+     * A method to map a {@code PieceType} and {@code Alliance} to the index
+     * of their piece bitboard. White pieces are indexed 0 through 5 and black
+     * pieces 6 through 11, in {@code PieceType} order.
+     *
+     * @param pieceType the {@code PieceType}
+     * @param alliance the {@code Alliance}
+     * @return the index of the corresponding piece bitboard
+     */
+    public static int pieceIndex(final PieceType pieceType, final Alliance alliance) {
+        return pieceType.ordinal() + (alliance.isWhite()? 0: 6);
+    }
+
+}
@@ -6,6 +6,7 @@ import Engine.Player.WhitePlayer;
 import Engine.Player.BlackPlayer;
 import Engine.Player.Player.PlayerType;
 import Engine.Pieces.Alliance;
+import Engine.Pieces.Piece.PieceType;
 
 import java.util.*;
 
@@ -20,6 +21,23 @@ import java.util.*;
  * vital to this chess engine and offers a plethora of benefits.
  * Among these are maintainability and reliability.
  *
+ * <p>
+ * Internally, a {@code Board} is described by twelve piece bitboards and
+ * an occupancy bitboard for each {@code Alliance}. The {@code Tile} and
+ * {@code Piece} views exposed to clients are derived from these bitboards
+ * upon first request, so that a {@code Board} which is never drawn or
+ * walked does not pay for them. Likewise, legal {@code Move}s, check and
+ * castles are calculated and memoized upon first request.
+ *
+ * <p>
+ * A {@code Board} is read by several threads at once: the GUI, the search
+ * and its helpers. Each memoized value is built in full, never changed
+ * afterward, and published through a volatile field, so every thread sees
+ * either nothing or the whole value. Two threads which race to build the
+ * same value build equal copies, and either may be kept. The {@code Tile}s
+ * are shared, immutable instances, so a racing thread at worst looks the
+ * same {@code Tile} up twice.
+ *
  * @author Ellie Moore
  * @author Amir Afghani
  * @version 06.09.2020
@@ -27,15 +45,50 @@ import java.util.*;
 public final class Board {
 
 	/**
-	 * A {@code List} of individual {@code Tile}s which constitute the game board.
+	 * The {@code Piece} on each coordinate of the game board, or null if the
+	 * coordinate is empty.
+	 */
+	private final Piece[] boardConfig;
+
+	/**
+	 * A bitboard for each {@code PieceType} of each {@code Alliance}.
+	 *
+	 * @see BitBoard#pieceIndex(PieceType, Alliance)
+	 */
+	private final long[] pieceBoards;
+
+	/**
+	 * An occupancy bitboard for each {@code Alliance}.
+	 */
+	private final long whiteOccupancy;
+	private final long blackOccupancy;
+
+	/**
+	 * The {@code Tile}s which constitute the game board. Each {@code Tile} is
+	 * derived from the bitboards upon first request.
 	 */
-	private final List<Tile> gameBoard;
+	private final Tile[] gameBoard;
 
 	/**
 	 * A {@code Collection} of active {@code Piece}s for each {@code Alliance}.
+	 * Each {@code Collection} is derived from the bitboards upon first request.
 	 */
-	private final Collection<Piece> whitePieces;
-	private final Collection<Piece> blackPieces;
+	private volatile Collection<Piece> whitePieces;
+	private volatile Collection<Piece> blackPieces;
+
+	/**
+	 * The standard legal {@code Move}s (excluding castles) of each
+	 * {@code Alliance}. Each {@code Collection} is calculated upon first request.
+	 */
+	private volatile Collection<Move> whiteStandardLegalMoves;
+	private volatile Collection<Move> blackStandardLegalMoves;
+
+	/**
+	 * The strictly legal destinations of each {@code Alliance}, as a bitboard per
+	 * origin coordinate. Each array is generated upon first request.
+	 */
+	private volatile long[] whiteLegalDestinations;
+	private volatile long[] blackLegalDestinations;
 
 	/**
 	 * A {@code Player} for each {@code Alliance}.
@@ -53,6 +106,19 @@ public final class Board {
 	 */
 	private final Pawn enPassantPawn;
 
+	/**
+	 * The castling rights of both {@code Alliance}s, as a four-bit set.
+	 */
+	private final int castlingRights;
+
+	/**
+	 * The Zobrist key of the {@code Piece} placement alone, and the full
+	 * Zobrist key of the {@code Board}. The placement key is carried over from
+	 * the previous {@code Board} and updated by the executed {@code Move}.
+	 */
+	private final long pieceKey;
+	private final long zobristKey;
+
 	/**
 	 * A private constructor for a board, meant to be called from the {@code Builder}.
 	 *
@@ -60,38 +126,37 @@ public final class Board {
 	 * @see Builder#build()
 	 */
 	private Board(final Builder builder){
-		populateActivePieces(
-			this.gameBoard = generateStandardBoard(builder),
-			this.whitePieces = new ArrayList<>(),
-			this.blackPieces = new ArrayList<>()
-		);
-        	this.enPassantPawn = builder.enPassantPawn;
-		final Collection<Move> whiteStdLegalMoves = calculateLegalMoves(this.whitePieces);
-        	final Collection<Move> blackStdLegalMoves = calculateLegalMoves(this.blackPieces);
+		this.boardConfig = builder.boardConfig.clone();
+		this.pieceBoards = new long[BitBoard.NUMBER_OF_PIECE_BOARDS];
+		long whiteOccupancy = BitBoard.EMPTY;
+		long blackOccupancy = BitBoard.EMPTY;
+		long pieceKey = builder.pieceKey;
+		for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
+			final Piece piece = this.boardConfig[i];
+			if(piece != null){
+				if(!builder.isPieceKeySet) pieceKey ^= piece.zobristHash();
+				final long square = BitBoard.squareOf(i);
+				this.pieceBoards[BitBoard.pieceIndex(piece.getPieceType(), piece.getPieceAlliance())] |= square;
+				if(piece.getPieceAlliance().isWhite()) whiteOccupancy |= square;
+				else blackOccupancy |= square;
+			}
+		}
+		this.whiteOccupancy = whiteOccupancy;
+		this.blackOccupancy = blackOccupancy;
+		this.gameBoard = new Tile[Utility.NUMBER_OF_TILES];
+		this.enPassantPawn = builder.enPassantPawn;
 		this.whitePlayer = new WhitePlayer(
-				this, whiteStdLegalMoves, blackStdLegalMoves,
-				builder.isWhiteCastled, builder.hasWhitePromoted, builder.whitePlayerType
+				this, builder.isWhiteCastled, builder.hasWhitePromoted, builder.whitePlayerType
 		);
 		this.blackPlayer = new BlackPlayer(
-				this, blackStdLegalMoves, whiteStdLegalMoves,
-				builder.isBlackCastled, builder.hasBlackPromoted, builder.blackPlayerType
+				this, builder.isBlackCastled, builder.hasBlackPromoted, builder.blackPlayerType
 		);
 		this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
-	}
-
-	/**
-	 * A method generate an immutable {@code List} of {@code Tile}s from a {@code Builder}'s
-	 * board configuration.
-	 *
-	 * @param builder the current builder
-	 * @return an immutable {@code List} of {@code Tile}s representing the current board
-	 */
-	private static List<Tile> generateStandardBoard(final Builder builder){
-		final List<Tile> tiles = new ArrayList<>();
-		for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
-			tiles.add(Tile.createTile(i, builder.boardConfig.get(i)));
-		}
-		return Collections.unmodifiableList(tiles);
+		this.castlingRights = SearchPosition.castlingRights(this);
+		this.pieceKey = pieceKey;
+		this.zobristKey = pieceKey ^ Zobrist.castling(this.castlingRights) ^
+				(this.enPassantPawn != null? Zobrist.enPassant(this.enPassantPawn.getPiecePosition()): 0) ^
+				(builder.nextMoveMaker.isWhite()? 0: Zobrist.side());
 	}
 
 	/**
@@ -110,23 +175,89 @@ public final class Board {
 	}
 
 	/**
-	 * A method to calculate the active {@code Pieces} in the {@code Board}'s
-	 * {@code Tile Collection}.
+	 * A method to expose the standard legal {@code Move}s (excluding castles) of an
+	 * {@code Alliance}. These are calculated upon first request, so that a
+	 * {@code Board} which is discarded unexamined never generates its {@code Move}s.
 	 *
-	 * @param gameBoard a {@code List} of {@code Tile}s representing the current board
-	 * @param whitePieces a {@code Collection} of all {@code Piece}s with a white {@code Alliance}
-	 * @param blackPieces a {@code Collection} of all {@code Piece}s with a black {@code Alliance}
-	 */
-	private static void populateActivePieces(final List<Tile> gameBoard,
-						 final Collection<Piece> whitePieces,
-						 final Collection<Piece> blackPieces) {
-		for(final Tile tile: gameBoard){
-			if(tile.isTileOccupied()){
-				final Piece piece = tile.getPiece();
-				if(piece.getPieceAlliance().isWhite()) whitePieces.add(piece);
-				else blackPieces.add(piece);
-			}
+	 * @param alliance the {@code Alliance}
+	 * @return the standard legal {@code Move}s of the {@code Alliance}
+	 */
+	public Collection<Move> getStandardLegalMoves(final Alliance alliance) {
+		Collection<Move> moves;
+		if(alliance.isWhite()) {
+			moves = this.whiteStandardLegalMoves;
+			if(moves == null) this.whiteStandardLegalMoves = moves = calculateLegalMoves(getWhitePieces());
+			return moves;
+		}
+		moves = this.blackStandardLegalMoves;
+		if(moves == null) this.blackStandardLegalMoves = moves = calculateLegalMoves(getBlackPieces());
+		return moves;
+	}
+
+	/**
+	 * A method to expose the strictly legal destinations of an {@code Alliance}.
+	 * These are produced by a {@code SearchPosition}, whose generator never
+	 * yields a move that leaves its own king in check, so that legality is
+	 * decided without executing a single {@code Move}.
+	 *
+	 * @param alliance the {@code Alliance}
+	 * @return a bitboard of legal destinations for each origin coordinate
+	 */
+	private long[] getLegalDestinations(final Alliance alliance) {
+		long[] destinations = alliance.isWhite()? this.whiteLegalDestinations: this.blackLegalDestinations;
+		if(destinations == null) {
+			destinations = new long[Utility.NUMBER_OF_TILES];
+			final int[] moves = new int[PackedMove.MAX_MOVES];
+			final int count = new SearchPosition(this, alliance).generateMoves(moves);
+			for(int i = 0; i < count; i++)
+				destinations[PackedMove.from(moves[i])] |= BitBoard.squareOf(PackedMove.to(moves[i]));
+			if(alliance.isWhite()) this.whiteLegalDestinations = destinations;
+			else this.blackLegalDestinations = destinations;
+		}
+		return destinations;
+	}
+
+	/**
+	 * A method to determine whether or not a {@code Move} leaves its own king
+	 * safe. The {@code Move} is assumed to be among the moving {@code Player}'s
+	 * legal {@code Move}s.
+	 *
+	 * @param move the {@code Move} to check
+	 * @return whether or not the {@code Move} is strictly legal
+	 */
+	public boolean isLegalMove(final Move move) {
+		return BitBoard.contains(
+				getLegalDestinations(move.getMovedPiece().getPieceAlliance())[move.getCurrentCoordinate()],
+				move.getDestinationCoordinate()
+		);
+	}
+
+	/**
+	 * A method to determine whether or not an {@code Alliance} has any strictly
+	 * legal {@code Move}.
+	 *
+	 * @param alliance the {@code Alliance}
+	 * @return whether or not the {@code Alliance} can move
+	 */
+	public boolean hasLegalMoves(final Alliance alliance) {
+		for(final long destinations: getLegalDestinations(alliance))
+			if(destinations != BitBoard.EMPTY) return true;
+		return false;
+	}
+
+	/**
+	 * A method to derive the active {@code Pieces} of an occupancy bitboard.
+	 *
+	 * @param occupancy the occupancy bitboard of an {@code Alliance}
+	 * @return an immutable {@code Collection} of the {@code Piece}s in the set
+	 */
+	private Collection<Piece> derivePieces(long occupancy) {
+		final List<Piece> pieces = new ArrayList<>(BitBoard.count(occupancy));
+		while(occupancy != BitBoard.EMPTY){
+			pieces.add(this.boardConfig[BitBoard.firstSquare(occupancy)]);
+			occupancy = BitBoard.withoutFirstSquare(occupancy);
 		}
+		return Collections.unmodifiableList(pieces);
 	}
 
 	/**
@@ -137,10 +268,10 @@ public final class Board {
 		final StringBuilder out = new StringBuilder();
 		int count = 0;
 		for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
-			Tile tile = this.gameBoard.get(i);
-			if(tile.isTileOccupied()){
-				if(count == 0) out.append(String.format("%s", tile));
-				else out.append(String.format("%d%s", count, tile));
+			final Piece piece = this.boardConfig[i];
+			if(piece != null){
+				if(count != 0) out.append(count);
+				out.append(piece.getPieceAlliance().isBlack()? piece.toString().toLowerCase(): piece.toString());
 				count = 0;
 			}
 			else count++;
@@ -162,24 +293,42 @@ public final class Board {
 		if(other == null) return false;
 		if(!(other instanceof Board)) return false;
 		Board cast = (Board) other;
-		for(int i = 0; i < gameBoard.size(); i++)
-			if(!gameBoard.get(i).equals(cast.gameBoard.get(i))) return false;
-		return true;
+		return Arrays.equals(this.pieceBoards, cast.pieceBoards) &&
+				Arrays.equals(this.boardConfig, cast.boardConfig);
 	}
 
 	/**
-	 * A method to calculate the Zobrist hash code for the current board.
-	 * Note: this method should only be invoked once per Minimax move calculation.
-	 * All proceeding Zobrist hashes may be calculated simply by XOR-ing out the
-	 * moved piece at its starting position and then XOR-ing it back in at its
-	 * destination.
+	 * A method to expose the Zobrist hash code of the current board. The hash
+	 * code covers the {@code Piece}s, the castling rights, the en passant
+	 * {@code Pawn} and the current {@code Player}, and is maintained by each
+	 * {@code Move} in constant time.
 	 *
 	 * @return the Zobrist hash code for the current board.
+	 * @see Zobrist
 	 */
 	public long zobristHash(){
-		long count = 0;
-		for(Tile t: gameBoard) count ^= t.zobristHash();
-		return count;
+		return this.zobristKey;
+	}
+
+	/**
+	 * A method to expose the Zobrist key of the {@code Piece} placement alone,
+	 * for use by a {@code Move} in computing the key of its {@code Board}.
+	 *
+	 * @return the Zobrist key of the {@code Piece} placement
+	 */
+	long getPieceKey(){
+		return this.pieceKey;
+	}
+
+	/**
+	 * A method to expose the castling rights of both {@code Alliance}s, as a
+	 * four-bit set. An {@code Alliance} keeps a right while it has not castled
+	 * and both its {@code King} and the corresponding {@code Rook} are unmoved.
+	 *
+	 * @return the castling rights
+	 */
+	public int getCastlingRights(){
+		return this.castlingRights;
 	}
 
 	/**
@@ -224,7 +373,9 @@ public final class Board {
 	 * @return the {@code board}'s black {@code Piece}s.
 	 */
 	public Collection<Piece> getBlackPieces(){
-		return this.blackPieces;
+		Collection<Piece> pieces = this.blackPieces;
+		if(pieces == null) this.blackPieces = pieces = derivePieces(this.blackOccupancy);
+		return pieces;
 	}
 
 	/**
@@ -233,7 +384,9 @@ public final class Board {
 	 * @return the {@code board}'s white {@code Piece}s.
 	 */
 	public Collection<Piece> getWhitePieces(){
-		return this.whitePieces;
+		Collection<Piece> pieces = this.whitePieces;
+		if(pieces == null) this.whitePieces = pieces = derivePieces(this.whiteOccupancy);
+		return pieces;
 	}
 
 	/**
@@ -243,7 +396,7 @@ public final class Board {
 	 * @return all of the {@code board}'s active {@code Piece}s.
 	 */
 	public Collection<Piece> getAllActivePieces(){
-		return Utility.concat(this.blackPieces, this.whitePieces);
+		return Utility.concat(getBlackPieces(), getWhitePieces());
 	}
 
 	/**
@@ -263,7 +416,60 @@ public final class Board {
 	 * @return the {@code Tile} at the given coordinate
 	 */
 	public Tile getTile(final int tileCoordinate) {
-		return this.gameBoard.get(tileCoordinate);
+		final Tile tile = this.gameBoard[tileCoordinate];
+		if(tile != null) return tile;
+		return this.gameBoard[tileCoordinate] = Tile.createTile(tileCoordinate, this.boardConfig[tileCoordinate]);
+	}
+
+	/**
+	 * A method to get a {@code Piece} by coordinate without going through
+	 * a {@code Tile}.
+	 *
+	 * @param tileCoordinate the coordinate of the desired {@code Piece}
+	 * @return the {@code Piece} at the given coordinate, or null if nonesuch
+	 */
+	public Piece getPiece(final int tileCoordinate) {
+		return this.boardConfig[tileCoordinate];
+	}
+
+	/**
+	 * A method to determine whether or not a coordinate is occupied.
+	 *
+	 * @param tileCoordinate the coordinate to check
+	 * @return whether or not a {@code Piece} occupies the given coordinate
+	 */
+	public boolean isTileOccupied(final int tileCoordinate) {
+		return BitBoard.contains(this.whiteOccupancy | this.blackOccupancy, tileCoordinate);
+	}
+
+	/**
+	 * A method to expose the bitboard of a {@code PieceType} and {@code Alliance}.
+	 *
+	 * @param pieceType the {@code PieceType}
+	 * @param alliance the {@code Alliance}
+	 * @return the coordinates of all such {@code Piece}s as a bitboard
+	 */
+	public long getPieceBoard(final PieceType pieceType, final Alliance alliance) {
+		return this.pieceBoards[BitBoard.pieceIndex(pieceType, alliance)];
+	}
+
+	/**
+	 * A method to expose the occupancy bitboard of an {@code Alliance}.
+	 *
+	 * @param alliance the {@code Alliance}
+	 * @return the coordinates of all {@code Piece}s of the {@code Alliance} as a bitboard
+	 */
+	public long getOccupancy(final Alliance alliance) {
+		return alliance.isWhite()? this.whiteOccupancy: this.blackOccupancy;
+	}
+
+	/**
+	 * A method to expose the occupancy bitboard of the whole {@code Board}.
+	 *
+	 * @return the coordinates of all active {@code Piece}s as a bitboard
+	 */
+	public long getOccupancy() {
+		return this.whiteOccupancy | this.blackOccupancy;
 	}
 
 	/**
@@ -330,7 +536,7 @@ public final class Board {
 		/**
 		 * The {@code Piece} configuration for the {@code Board} under construction.
 		 */
-		private final Map<Integer, Piece> boardConfig;
+		private final Piece[] boardConfig;
 
 		/**
 		 * The move maker (turn taker) for the {@code Board} under construction.
@@ -362,11 +568,18 @@ public final class Board {
 		private PlayerType whitePlayerType;
 		private PlayerType blackPlayerType;
 
+		/**
+		 * The Zobrist key of the {@code Piece} placement, if the client has
+		 * computed it incrementally.
+		 */
+		private long pieceKey;
+		private boolean isPieceKeySet;
+
 		/**
 		 * A public constructor for a {@code Builder}.
 		 */
 		public Builder(){
-			this.boardConfig = new HashMap<>();
+			this.boardConfig = new Piece[Utility.NUMBER_OF_TILES];
 			this.isBlackCastled = false;
 			this.isWhiteCastled = false;
 			this.hasBlackPromoted = false;
@@ -380,7 +593,21 @@ public final class Board {
 		 * @return the instance
 		 */
 		public Builder setPiece(final Piece piece){
-			this.boardConfig.put(piece.getPiecePosition(), piece);
+			this.boardConfig[piece.getPiecePosition()] = piece;
+			return this;
+		}
+
+		/**
+		 * A method to set the Zobrist key of the {@code Piece} placement, so
+		 * that the {@code Board} under construction need not compute it from
+		 * scratch.
+		 *
+		 * @param pieceKey the Zobrist key of the {@code Piece} placement
+		 * @return the instance
+		 */
+		Builder setPieceKey(final long pieceKey){
+			this.pieceKey = pieceKey;
+			this.isPieceKeySet = true;
 			return this;
 		}
 
@@ -215,6 +215,7 @@ public abstract class Move {
 		}
 		//"Moves" the piece.
 		builder.setPiece(this.movedPiece.movePiece(this))
+		.setPieceKey(this.board.getPieceKey() ^ movedPieceKey())
 		.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
 		.setIsCastled(this.board.currentPlayer(), this.board.currentPlayer().isCastled())
 		.setHasPromoted(this.board.currentPlayer(), this.board.currentPlayer().hasPromoted())
@@ -225,6 +226,18 @@ public abstract class Move {
 		return builder.build();
 	}
 
+	/**
+	 * A method to compute the change in the Zobrist key of the {@code Piece}
+	 * placement caused by moving the moved {@code Piece} from its current
+	 * position to the destination. Captured, promoted and castled
+	 * {@code Piece}s are accounted for by the subclasses.
+	 *
+	 * @return the XOR of the moved {@code Piece}'s keys at both positions
+	 */
+	protected long movedPieceKey() {
+		return this.movedPiece.zobristHash() ^ this.movedPiece.zobristHash(this.destinationCoordinate);
+	}
+
 	/**
 	 * Elite Move
 	 *
@@ -326,6 +339,7 @@ public abstract class Move {
 				}
 			}
 			builder.setPiece(this.movedPiece.movePiece(this))
+			.setPieceKey(this.board.getPieceKey() ^ movedPieceKey() ^ this.getAttackedPiece().zobristHash())
 			.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
 			.setIsCastled(this.board.currentPlayer(), this.board.currentPlayer().isCastled())
 			.setHasPromoted(this.board.currentPlayer(), this.board.currentPlayer().hasPromoted())
@@ -515,14 +529,35 @@ public abstract class Move {
 		 */
 		private final Piece promotedPawn;
 
+		/**
+		 * The {@code PieceType} to promote to, or null if it is to be chosen
+		 * upon execution.
+		 */
+		private final PieceType promotionType;
+
 		/** A public constructor for a {@code PawnPromotion}. */
 		public PawnPromotion(final Move decoratedMove) {
+			this(decoratedMove, null);
+		}
+
+		/** A public constructor for a {@code PawnPromotion} to a known {@code PieceType}. */
+		public PawnPromotion(final Move decoratedMove, final PieceType promotionType) {
 			super(
 					decoratedMove.getBoard(), decoratedMove.getMovedPiece(),
 					decoratedMove.getDestinationCoordinate(), MoveType.PAWN_PROMOTION
 			);
 			this.decoratedMove = decoratedMove;
 			this.promotedPawn = decoratedMove.getMovedPiece();
+			this.promotionType = promotionType;
+		}
+
+		/**
+		 * A method to expose the {@code PieceType} to promote to.
+		 *
+		 * @return the promotion {@code PieceType}, or null if it is to be chosen upon execution
+		 */
+		public PieceType getPromotionType(){
+			return this.promotionType;
 		}
 
 		/**
@@ -546,9 +581,11 @@ public abstract class Move {
 		 *
 		 * <p>
 		 * This implementation of {@link Move#execute(boolean)} will replace the moved {@code Pawn}
-		 * with a {@code Queen} rather than the usual twin instance.
+		 * with its promotion {@code Piece} rather than the usual twin instance. If no
+		 * promotion {@code PieceType} was given, an AI promotes to a {@code Queen} and a
+		 * user is asked.
 		 *
-		 * @return a new {@code Board} with a {@code Queen} at the destination position
+		 * @return a new {@code Board} with the promotion {@code Piece} at the destination position
 		 */
 		@Override
 		public Board execute(final boolean isAI){
@@ -559,7 +596,12 @@ public abstract class Move {
 			for(final Piece piece: this.board.currentPlayer().getOpponent().getActivePieces()){
 				if(!piece.equals(this.getAttackedPiece())) builder.setPiece(piece);
 			}
-			builder.setPiece(((Pawn)this.promotedPawn).getPromotionPiece(isAI).movePiece(this))
+			final Pawn pawn = (Pawn) this.promotedPawn;
+			final Piece promotionPiece = (this.promotionType == null?
+					pawn.getPromotionPiece(isAI): pawn.getPromotionPiece(this.promotionType)).movePiece(this);
+			builder.setPiece(promotionPiece)
+			.setPieceKey(this.board.getPieceKey() ^ this.promotedPawn.zobristHash() ^ promotionPiece.zobristHash() ^
+					(isAttack()? getAttackedPiece().zobristHash(): 0))
 			.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
 			.setIsCastled(this.board.currentPlayer(), this.board.currentPlayer().isCastled())
 			.setHasPromoted(this.board.currentPlayer(), true)
@@ -591,7 +633,8 @@ public abstract class Move {
 		 */
 		@Override
 		public String toString(){
-			return Utility.getPositionAtCoordinate(this.decoratedMove.getDestinationCoordinate()) + "Q";
+			return Utility.getPositionAtCoordinate(this.decoratedMove.getDestinationCoordinate()) +
+					(this.promotionType == null? "Q": this.promotionType.toString());
 		}
 
 	}
@@ -636,6 +679,7 @@ public abstract class Move {
 			}
 			final Pawn movedPawn = (Pawn)this.movedPiece.movePiece(this);
 			builder.setPiece(movedPawn)
+			.setPieceKey(this.board.getPieceKey() ^ movedPieceKey())
 			.setEnPassantPawn(movedPawn)
 			.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
 			.setIsCastled(this.board.currentPlayer(), this.board.currentPlayer().isCastled())
@@ -741,7 +785,9 @@ public abstract class Move {
 			builder.setPiece(Rook.movedInstance(
 					this.castleRookDestination, this.castleRook.getPieceAlliance()
 			));
-			builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
+			builder.setPieceKey(this.board.getPieceKey() ^ movedPieceKey() ^
+					this.castleRook.zobristHash() ^ this.castleRook.zobristHash(this.castleRookDestination))
+			.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
 			.setIsCastled(this.board.currentPlayer(), true)
 			.setHasPromoted(this.board.currentPlayer(), this.board.currentPlayer().hasPromoted())
 			.setPlayerType(
@@ -923,6 +969,26 @@ public abstract class Move {
 			return NULL_MOVE;
 		}
 
+		/**
+		 * A factory method to convert a {@link PackedMove} into the legal {@code Move}
+		 * on the current {@code Board} that it describes. A promotion keeps the
+		 * promotion {@code PieceType} of the packed move.
+		 *
+		 * @param board the current {@code Board}
+		 * @param packedMove the packed move
+		 * @return a legal {@code Move}, or a {@code NullMove} if nonesuch
+		 */
+		public static Move produce(final Board board,
+								   final int packedMove){
+			final Move move = produce(board, PackedMove.from(packedMove), PackedMove.to(packedMove));
+			if(move instanceof PawnPromotion && PackedMove.isPromotion(packedMove)){
+				return new PawnPromotion(
+						((PawnPromotion) move).decoratedMove, PackedMove.promotionType(packedMove)
+				);
+			}
+			return move;
+		}
+
 		/**
 		 * A factory method to showcase a {@code Move}. Showcasing a {@code Move} is a
 		 * limiting strategy to protect the {@code Move} from accidental execution.
@@ -0,0 +1,184 @@
+package Engine.Board;
+
+import Engine.Pieces.Piece.PieceType;
+
+/**
+ * Packed Move
+ *
+ * <p>
+ * A class full of static support functions for moves packed into a single
+ * {@code int}. A packed move holds everything that the search needs to make
+ * and unmake a move, so the search never allocates a {@code Move} object:
+ *
+ * <pre>
+ *  bits  0 -  5   origin coordinate
+ *  bits  6 - 11   destination coordinate
+ *  bits 12 - 15   flag (quiet, double push, castle, capture, en passant, promotion)
+ *  bits 16 - 18   promotion piece ({@code PieceType} ordinal), or 0
+ * </pre>
+ *
+ * <p>
+ * A packed move is converted into a full {@code Move} only where a
+ * {@code Move} is needed, at the GUI and {@code MoveLog} boundary.
+ *
+ * @see Move.MoveFactory#produce(Board, int)
+ */
+public final class PackedMove {
+
+    /**
+     * A packed move which no position generates, since its origin and its
+     * destination are the same.
+     */
+    public static final int NO_MOVE = 0;
+
+    /**
+     * The move flags. Every flag with the {@code CAPTURE} bit set captures a
+     * piece, and every flag with the {@code PROMOTION} bit set promotes a pawn.
+     */
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    /**
+     * The largest number of pseudo-legal moves that any position may have,
+     * for use in sizing move buffers.
+     */
+    public static final int MAX_MOVES = 256;
+
+    /**
+     * Every {@code PieceType}, by ordinal.
+     */
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * Prevents instantiation.
+     */
+    private PackedMove() {
+    }
+
+    /**
+     * A method to pack a move which does not promote a pawn.
+     *
+     * @param from the origin of the move
+     * @param to the destination of the move
+     * @param flag the move flag
+     * @return the packed move
+     */
+    public static int encode(final int from, final int to, final int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    /**
+     * A method to pack a move which promotes a pawn.
+     *
+     * @param from the origin of the move
+     * @param to the destination of the move
+     * @param flag the move flag
+     * @param promotionType the {@code PieceType} to promote to
+     * @return the packed move
+     */
+    public static int encode(final int from, final int to, final int flag, final PieceType promotionType) {
+        return encode(from, to, flag) | (promotionType.ordinal() << 16);
+    }
+
+    /**
+     * A method to unpack the origin of a move.
+     *
+     * @param move the packed move
+     * @return the origin of the move
+     */
+    public static int from(final int move) {
+        return move & 63;
+    }
+
+    /**
+     * A method to unpack the destination of a move.
+     *
+     * @param move the packed move
+     * @return the destination of the move
+     */
+    public static int to(final int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * A method to unpack the flag of a move.
+     *
+     * @param move the packed move
+     * @return the flag of the move
+     */
+    public static int flag(final int move) {
+        return (move >>> 12) & 15;
+    }
+
+    /**
+     * A method to unpack the promotion piece of a move as the piece index of
+     * its white counterpart.
+     *
+     * @param move the packed move
+     * @return the promotion piece index, or 0 if the move does not promote
+     * @see BitBoard#pieceIndex(PieceType, Engine.Pieces.Alliance)
+     */
+    public static int promotionPiece(final int move) {
+        return move >>> 16;
+    }
+
+    /**
+     * A method to unpack the promotion {@code PieceType} of a move.
+     *
+     * @param move the packed move
+     * @return the promotion {@code PieceType}, or null if the move does not promote
+     */
+    public static PieceType promotionType(final int move) {
+        return isPromotion(move)? PIECE_TYPES[promotionPiece(move)]: null;
+    }
+
+    /**
+     * A method to determine whether or not a move captures a piece.
+     *
+     * @param move the packed move
+     * @return whether or not the move is a capture
+     */
+    public static boolean isCapture(final int move) {
+        return (flag(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * A method to determine whether or not a move promotes a pawn.
+     *
+     * @param move the packed move
+     * @return whether or not the move is a promotion
+     */
+    public static boolean isPromotion(final int move) {
+        return (flag(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * A method to determine whether or not a move is a castle.
+     *
+     * @param move the packed move
+     * @return whether or not the move is a castle
+     */
+    public static boolean isCastle(final int move) {
+        final int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    /**
+     * A method to describe a packed move in coordinate notation, e.g.
+     * "e2e4" or "e7e8n".
+     *
+     * @param move the packed move
+     * @return the description
+     */
+    public static String toString(final int move) {
+        final String s = Utility.getPositionAtCoordinate(from(move)) + Utility.getPositionAtCoordinate(to(move));
+        return isPromotion(move)? s + promotionType(move).toString().toLowerCase(): s;
+    }
+
+}
@@ -0,0 +1,214 @@
+package Engine.Board;
+
+import Engine.Pieces.Piece.PieceType;
+import Engine.Player.MoveTransition;
+import Engine.Player.Player;
+
+import java.util.*;
+
+/**
+ * Perft
+ *
+ * <p>
+ * A performance test for the move generator. Perft walks the full game tree
+ * of a {@code Board} to a fixed depth through {@link Player#getLegalMoves()}
+ * and {@link Player#makeMove(Move, boolean)}, exactly as a game would, and
+ * counts the leaves. The counts of well-known positions are published, so a
+ * mismatch exposes a move generation bug, and the time taken measures the
+ * raw throughput of the move generator.
+ *
+ * <p>
+ * Divide reports the leaf count below each root {@code Move} separately, so
+ * that a mismatch can be traced down to the {@code Move} which causes it.
+ *
+ * <p>
+ * Usage: {@code Perft [-divide] [-search] <depth> [FEN]}. The FEN may be
+ * either a standard FEN or the extended FEN of
+ * {@link Utility#parseFEN(String)}, and defaults to the standard starting
+ * position. With {@code -search}, the tree is walked by a
+ * {@code SearchPosition} instead, to measure the generator used by the
+ * search.
+ */
+public final class Perft {
+
+    /**
+     * The {@code PieceType}s that a pawn may promote to. A {@code Board}
+     * offers each promotion as a single {@code Move}, so perft expands it into
+     * one {@code Move} per {@code PieceType}.
+     */
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.QUEEN, PieceType.KNIGHT, PieceType.ROOK, PieceType.BISHOP
+    };
+
+    /**
+     * The number of sections in the extended FEN of {@link Utility#parseFEN(String)}.
+     */
+    private static final int EXTENDED_FEN_SECTIONS = 7;
+
+    /**
+     * Prevents instantiation.
+     */
+    private Perft() {
+    }
+
+    /**
+     * A method to count the leaves of the game tree of a {@code Board}.
+     *
+     * @param board the root {@code Board}
+     * @param depth the depth of the tree
+     * @return the number of leaves
+     */
+    public static long perft(final Board board, final int depth) {
+        if(depth == 0) return 1;
+        long leaves = 0;
+        for(final Move move: expandPromotions(board)) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move, true);
+            if(transition.getMoveStatus().isDone()) leaves += perft(transition.getTransitionBoard(), depth - 1);
+        }
+        return leaves;
+    }
+
+    /**
+     * A method to count the leaves of the game tree of a {@code Board} below
+     * each root {@code Move}.
+     *
+     * @param board the root {@code Board}
+     * @param depth the depth of the tree, at least 1
+     * @return the number of leaves below each root {@code Move}, in move generation order
+     */
+    public static Map<String, Long> divide(final Board board, final int depth) {
+        final Map<String, Long> leaves = new LinkedHashMap<>();
+        for(final Move move: expandPromotions(board)) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move, true);
+            if(transition.getMoveStatus().isDone())
+                leaves.put(describe(move), perft(transition.getTransitionBoard(), depth - 1));
+        }
+        return leaves;
+    }
+
+    /**
+     * A method to count the leaves of the game tree of a {@code SearchPosition}.
+     * The position is restored before this method returns.
+     *
+     * @param position the root position
+     * @param depth the depth of the tree
+     * @param moveBuffers a move buffer for each ply of the tree
+     * @return the number of leaves
+     */
+    public static long perft(final SearchPosition position, final int depth, final int[][] moveBuffers) {
+        if(depth == 0) return 1;
+        final int[] moves = moveBuffers[depth];
+        final int count = position.generateMoves(moves);
+        if(depth == 1) return count;
+        long leaves = 0;
+        for(int i = 0; i < count; i++) {
+            position.make(moves[i]);
+            leaves += perft(position, depth - 1, moveBuffers);
+            position.unmake();
+        }
+        return leaves;
+    }
+
+    /**
+     * A method to count the leaves of the game tree of a {@code SearchPosition}
+     * below each root move.
+     *
+     * @param position the root position
+     * @param depth the depth of the tree, at least 1
+     * @return the number of leaves below each root move, in move generation order
+     */
+    public static Map<String, Long> divide(final SearchPosition position, final int depth) {
+        final int[][] moveBuffers = new int[depth + 1][PackedMove.MAX_MOVES];
+        final Map<String, Long> leaves = new LinkedHashMap<>();
+        final int[] moves = moveBuffers[depth];
+        final int count = position.generateMoves(moves);
+        for(int i = 0; i < count; i++) {
+            position.make(moves[i]);
+            leaves.put(PackedMove.toString(moves[i]), perft(position, depth - 1, moveBuffers));
+            position.unmake();
+        }
+        return leaves;
+    }
+
+    /*
+     * A method to list the legal Moves of the current Player, with each
+     * promotion expanded into one Move per promotion PieceType.
+     */
+    private static List<Move> expandPromotions(final Board board) {
+        final List<Move> moves = new ArrayList<>();
+        for(final Move move: board.currentPlayer().getLegalMoves()) {
+            if(move instanceof Move.PawnPromotion) {
+                for(final PieceType promotionType: PROMOTION_TYPES) {
+                    moves.add(Move.MoveFactory.produce(board, PackedMove.encode(
+                            move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                            PackedMove.PROMOTION, promotionType
+                    )));
+                }
+            } else moves.add(move);
+        }
+        return moves;
+    }
+
+    /*
+     * A method to describe a Move in coordinate notation, e.g. "e2e4" or "e7e8n".
+     */
+    private static String describe(final Move move) {
+        return PackedMove.toString(move instanceof Move.PawnPromotion?
+                PackedMove.encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                        PackedMove.PROMOTION, ((Move.PawnPromotion) move).getPromotionType()):
+                PackedMove.encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                        PackedMove.QUIET));
+    }
+
+    /*
+     * A method to parse either a standard FEN or an extended FEN.
+     */
+    private static Board parse(final String fen) {
+        return fen.trim().split("\\s+").length == EXTENDED_FEN_SECTIONS?
+                Utility.parseFEN(fen.trim()): Utility.parseStandardFEN(fen);
+    }
+
+    /**
+     * The perft entry point.
+     *
+     * @param args {@code [-divide] [-search] <depth> [FEN]}
+     */
+    public static void main(final String[] args) {
+        boolean isDivide = false;
+        boolean isSearch = false;
+        int i = 0;
+        for(; i < args.length && args[i].startsWith("-"); i++) {
+            if(args[i].equals("-divide")) isDivide = true;
+            else if(args[i].equals("-search")) isSearch = true;
+            else throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        if(i == args.length) {
+            System.out.println("Usage: Perft [-divide] [-search] <depth> [FEN]");
+            return;
+        }
+        final int depth = Integer.parseInt(args[i++]);
+        if(depth < 1) throw new IllegalArgumentException("The depth must be at least 1.");
+        final Board board = i < args.length? parse(String.join(" ", Arrays.copyOfRange(args, i, args.length))):
+                Board.generateStandardBoard(Player.PlayerType.USER, Player.PlayerType.USER);
+        final long start = System.nanoTime();
+        final long leaves;
+        if(isDivide) {
+            final Map<String, Long> divided = isSearch?
+                    divide(new SearchPosition(board), depth): divide(board, depth);
+            long sum = 0;
+            for(final Map.Entry<String, Long> entry: divided.entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                sum += entry.getValue();
+            }
+            System.out.println("Moves: " + divided.size());
+            leaves = sum;
+        } else leaves = isSearch?
+                perft(new SearchPosition(board), depth, new int[depth + 1][PackedMove.MAX_MOVES]):
+                perft(board, depth);
+        final long nanos = Math.max(System.nanoTime() - start, 1);
+        System.out.println("Nodes: " + leaves);
+        System.out.println("Time: " + nanos / 1000000 + " ms");
+        System.out.println("Leaves per second: " + (long) (leaves * 1.0e9 / nanos));
+    }
+
+}
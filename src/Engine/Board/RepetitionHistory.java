@@ -0,0 +1,150 @@
+package Engine.Board;
+
+import java.util.Arrays;
+
+/**
+ * Repetition History
+ *
+ * <p>
+ * A stack of the Zobrist keys of the positions of a game, for detecting
+ * repetitions. Each key is pushed as its position is reached and popped as
+ * the move which reached it is taken back, both in constant time, so the
+ * same stack serves the game and every line of a search.
+ *
+ * <p>
+ * A position can only repeat a position reached since the last
+ * irreversible move: a capture, a pawn move, or a move which gives up a
+ * castling right. Each entry therefore records where its run of reversible
+ * moves began, and a repetition is looked for only within that run, and
+ * only among the positions with the same side to move, which lie two plies
+ * apart.
+ */
+public final class RepetitionHistory {
+
+    /**
+     * The initial number of entries, enough for the longest line of a search.
+     */
+    private static final int INITIAL_CAPACITY = SearchPosition.MAX_PLY;
+
+    /**
+     * The key of each position.
+     */
+    private long[] keys;
+
+    /**
+     * The index of the first position of the run of each position.
+     */
+    private int[] runStarts;
+
+    /**
+     * The number of positions on the stack.
+     */
+    private int size;
+
+    /**
+     * A public constructor for an empty {@code RepetitionHistory}.
+     */
+    public RepetitionHistory() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.runStarts = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * A public constructor for a copy of a {@code RepetitionHistory}.
+     *
+     * @param history the {@code RepetitionHistory} to copy
+     */
+    public RepetitionHistory(final RepetitionHistory history) {
+        final int capacity = Math.max(INITIAL_CAPACITY, history.size + INITIAL_CAPACITY);
+        this.keys = Arrays.copyOf(history.keys, capacity);
+        this.runStarts = Arrays.copyOf(history.runStarts, capacity);
+        this.size = history.size;
+    }
+
+    /**
+     * A method to push the key of the position just reached.
+     *
+     * @param key the Zobrist key of the position
+     * @param isIrreversible whether or not the move which reached it is irreversible
+     */
+    public void push(final long key, final boolean isIrreversible) {
+        if(this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size << 1);
+            this.runStarts = Arrays.copyOf(this.runStarts, this.size << 1);
+        }
+        this.keys[this.size] = key;
+        this.runStarts[this.size] = isIrreversible || this.size == 0? this.size: this.runStarts[this.size - 1];
+        this.size++;
+    }
+
+    /**
+     * A method to pop the key of the last position reached.
+     */
+    public void pop() {
+        this.size--;
+    }
+
+    /**
+     * A method to empty the history.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Exposes the number of positions on the stack.
+     *
+     * @return the number of positions
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * A method to expose the key of the last position reached.
+     *
+     * @return the Zobrist key of the last position, or 0 if there is none
+     */
+    public long lastKey() {
+        return this.size == 0? 0L: this.keys[this.size - 1];
+    }
+
+    /**
+     * A method to count the earlier occurrences of the last position reached.
+     *
+     * @return the number of times the last position occurred before
+     */
+    public int repetitions() {
+        if(this.size == 0) return 0;
+        final int last = this.size - 1;
+        final long key = this.keys[last];
+        int count = 0;
+        for(int i = last - 2; i >= this.runStarts[last]; i -= 2) if(this.keys[i] == key) count++;
+        return count;
+    }
+
+    /**
+     * A method to determine whether or not the last position reached has
+     * occurred before. The search scores such a position as a draw.
+     *
+     * @return whether or not the last position is a repetition
+     */
+    public boolean isRepetition() {
+        if(this.size == 0) return false;
+        final int last = this.size - 1;
+        final long key = this.keys[last];
+        for(int i = last - 2; i >= this.runStarts[last]; i -= 2) if(this.keys[i] == key) return true;
+        return false;
+    }
+
+    /**
+     * A method to determine whether or not the last position reached has
+     * occurred three times, which draws the game.
+     *
+     * @return whether or not the last position is a threefold repetition
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions() >= 2;
+    }
+
+}
@@ -0,0 +1,1116 @@
+package Engine.Board;
+
+import Engine.Pieces.Alliance;
+import Engine.Pieces.Pawn;
+import Engine.Pieces.Piece;
+import Engine.Pieces.Piece.PieceType;
+
+import static Engine.Board.PackedMove.*;
+
+/**
+ * Search Position
+ *
+ * <p>
+ * A mutable chess position for use by the search. Where a {@code Board} is
+ * immutable and builds a whole new {@code Board} (with both {@code Player}s
+ * and all of their legal {@code Move}s) for every {@code Move}, a
+ * {@code SearchPosition} is changed in place with {@link #make(int)} and
+ * changed back with {@link #unmake()}. Everything that a {@code Move} may
+ * destroy (the captured piece, the castling rights, the en passant square,
+ * the hash key and the castled and promoted flags) is pushed onto a set of
+ * primitive undo stacks, so neither making nor unmaking a move allocates.
+ * The key of each position reached is also pushed onto a
+ * {@link RepetitionHistory}, which may begin with the positions of the game,
+ * so that a repetition is found whether it repeats a position of the game
+ * or one of the line being searched.
+ *
+ * <p>
+ * A {@code SearchPosition} is described by the same twelve piece bitboards
+ * as a {@code Board}, an occupancy bitboard for each side and a mailbox of
+ * piece indices for constant-time lookup of the piece on a coordinate.
+ * Moves are generated into and made from {@code int} buffers of
+ * {@link PackedMove}s.
+ *
+ * <p>
+ * The immutable {@code Board} remains the API for the GUI and for all other
+ * callers. A {@code SearchPosition} is created from a {@code Board} at the
+ * root of a search and discarded afterward.
+ */
+public final class SearchPosition {
+
+    /**
+     * The sides, for use as indices.
+     */
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    /**
+     * The mailbox value of an empty coordinate.
+     */
+    public static final int NO_PIECE = -1;
+
+    /**
+     * The piece bitboard indices of each {@code PieceType} of the white side.
+     * The index of a black piece is that of its white counterpart plus six.
+     */
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    /**
+     * The largest number of moves that may be made before they are unmade.
+     */
+    public static final int MAX_PLY = 128;
+
+    /**
+     * The kinds of moves to generate, one bit each.
+     */
+    private static final int CAPTURES = 1;
+    private static final int QUIET_MOVES = 2;
+    private static final int QUIET_PROMOTIONS = 4;
+    private static final int ALL_MOVES = CAPTURES | QUIET_MOVES;
+
+    /**
+     * The first and eighth rows, onto which a pawn promotes.
+     */
+    private static final long PROMOTION_ROWS = 0xFF000000000000FFL;
+
+    /**
+     * The castling rights, one bit each.
+     */
+    private static final int WHITE_KING_SIDE = 1;
+    private static final int WHITE_QUEEN_SIDE = 2;
+    private static final int BLACK_KING_SIDE = 4;
+    private static final int BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * The castling rights which survive a move from or to each coordinate.
+     * Moving a king or a rook from its home coordinate, or capturing a rook on
+     * its home coordinate, clears the corresponding rights.
+     */
+    private static final int[] CASTLING_MASK = new int[Utility.NUMBER_OF_TILES];
+
+    /**
+     * The bits of the castled and promoted flags.
+     */
+    private static final int WHITE_CASTLED = 1;
+    private static final int BLACK_CASTLED = 2;
+    private static final int WHITE_PROMOTED = 4;
+    private static final int BLACK_PROMOTED = 8;
+
+    /**
+     * The rows that a pawn of each side lands on after a single push from
+     * its starting row. A pawn there may push once more.
+     */
+    private static final long WHITE_DOUBLE_PUSH_ROW = 0x0000FF0000000000L;
+    private static final long BLACK_DOUBLE_PUSH_ROW = 0x0000000000FF0000L;
+
+    /**
+     * The {@code PieceType}s that a pawn may promote to, best first.
+     */
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.QUEEN, PieceType.KNIGHT, PieceType.ROOK, PieceType.BISHOP
+    };
+
+    /**
+     * The value of the piece of each piece bitboard index.
+     */
+    private static final int[] PIECE_VALUES = new int[BitBoard.NUMBER_OF_PIECE_BOARDS];
+
+    /** Static initialization block */
+    static {
+        for(int i = 0; i < Utility.NUMBER_OF_TILES; i++) CASTLING_MASK[i] = 0xF;
+        CASTLING_MASK[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[63] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[56] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[7] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[0] &= ~BLACK_QUEEN_SIDE;
+        final PieceType[] pieceTypes = PieceType.values();
+        for(int i = 0; i < PIECE_VALUES.length; i++) PIECE_VALUES[i] = pieceTypes[i % 6].getPieceValue();
+    }
+
+    /**
+     * A bitboard for each piece index.
+     */
+    private final long[] pieceBoards;
+
+    /**
+     * An occupancy bitboard for each side.
+     */
+    private final long[] occupancy;
+
+    /**
+     * The piece index on each coordinate, or {@code NO_PIECE}.
+     */
+    private final int[] mailbox;
+
+    /**
+     * The side to move.
+     */
+    private int sideToMove;
+
+    /**
+     * The castling rights of both sides.
+     */
+    private int castlingRights;
+
+    /**
+     * The coordinate that a pawn may capture en passant onto, or -1.
+     */
+    private int enPassantSquare;
+
+    /**
+     * The castled and promoted flags of both sides.
+     */
+    private int status;
+
+    /**
+     * The Zobrist key of the position, which covers the pieces, the castling
+     * rights, the en passant square and the side to move.
+     */
+    private long key;
+
+    /**
+     * The number of moves made and not yet unmade.
+     */
+    private int ply;
+
+    /**
+     * The undo stacks, indexed by ply.
+     */
+    private final int[] moveStack;
+    private final int[] capturedStack;
+    private final int[] castlingStack;
+    private final int[] enPassantStack;
+    private final int[] statusStack;
+    private final long[] keyStack;
+
+    /**
+     * The keys of the positions reached, from the game and then the search.
+     */
+    private final RepetitionHistory history;
+
+    /**
+     * A scratch move buffer for {@link #hasLegalMoves()} and
+     * {@link #isLegal(int)}.
+     */
+    private final int[] scratch;
+
+    /**
+     * A scratch list of gains for {@link #see(int)}, one for each capture of
+     * an exchange.
+     */
+    private final int[] swapList;
+
+    /**
+     * The pin ray of each pinned piece, valid only during move generation.
+     */
+    private final long[] pinRays;
+
+    /**
+     * A public constructor for a {@code SearchPosition}, with the current
+     * {@code Player} of the {@code Board} to move.
+     *
+     * @param board the {@code Board} to copy
+     */
+    public SearchPosition(final Board board) {
+        this(board, board.currentPlayer().getAlliance(), null);
+    }
+
+    /**
+     * A public constructor for a {@code SearchPosition}, with the current
+     * {@code Player} of the {@code Board} to move, which continues the
+     * {@code RepetitionHistory} of a game. The history is copied, so the
+     * search never changes the history of the game.
+     *
+     * @param board the {@code Board} to copy
+     * @param history the positions of the game, ending with the {@code Board}
+     */
+    public SearchPosition(final Board board, final RepetitionHistory history) {
+        this(board, board.currentPlayer().getAlliance(), history);
+    }
+
+    /**
+     * A public constructor for a {@code SearchPosition} with a given
+     * {@code Alliance} to move.
+     *
+     * @param board the {@code Board} to copy
+     * @param sideToMove the {@code Alliance} to move
+     */
+    public SearchPosition(final Board board, final Alliance sideToMove) {
+        this(board, sideToMove, null);
+    }
+
+    /*
+     * A private constructor for a SearchPosition with a given Alliance to
+     * move, which continues the given history, if any.
+     */
+    private SearchPosition(final Board board, final Alliance sideToMove, final RepetitionHistory history) {
+        this.pieceBoards = new long[BitBoard.NUMBER_OF_PIECE_BOARDS];
+        this.occupancy = new long[2];
+        this.mailbox = new int[Utility.NUMBER_OF_TILES];
+        this.moveStack = new int[MAX_PLY];
+        this.capturedStack = new int[MAX_PLY];
+        this.castlingStack = new int[MAX_PLY];
+        this.enPassantStack = new int[MAX_PLY];
+        this.statusStack = new int[MAX_PLY];
+        this.keyStack = new long[MAX_PLY];
+        this.scratch = new int[MAX_MOVES];
+        this.swapList = new int[Utility.NUMBER_OF_TILES];
+        this.pinRays = new long[Utility.NUMBER_OF_TILES];
+        for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
+            this.mailbox[i] = NO_PIECE;
+            final Piece piece = board.getPiece(i);
+            if(piece != null) {
+                final int pieceIndex = BitBoard.pieceIndex(piece.getPieceType(), piece.getPieceAlliance());
+                put(pieceIndex, i);
+                this.key ^= Zobrist.piece(pieceIndex, i);
+            }
+        }
+        this.sideToMove = sideToMove.isWhite()? WHITE: BLACK;
+        this.status = (board.whitePlayer().isCastled()? WHITE_CASTLED: 0) |
+                      (board.blackPlayer().isCastled()? BLACK_CASTLED: 0) |
+                      (board.whitePlayer().hasPromoted()? WHITE_PROMOTED: 0) |
+                      (board.blackPlayer().hasPromoted()? BLACK_PROMOTED: 0);
+        this.castlingRights = board.getCastlingRights();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantSquare = enPassantPawn == null ||
+                enPassantPawn.getPieceAlliance() == sideToMove? -1:
+                enPassantPawn.getPiecePosition() + (enPassantPawn.getPieceAlliance().isWhite()? 8: -8);
+        this.key ^= stateKey();
+        this.history = history == null? new RepetitionHistory(): new RepetitionHistory(history);
+        if(this.history.lastKey() != this.key) this.history.push(this.key, true);
+    }
+
+    /**
+     * A method to compute the castling rights of a {@code Board}, as a
+     * four-bit set.
+     *
+     * @param board the {@code Board}
+     * @return the castling rights of the {@code Board}
+     * @see Board#getCastlingRights()
+     */
+    static int castlingRights(final Board board) {
+        return (canCastle(board, Alliance.WHITE, 60, 63)? WHITE_KING_SIDE: 0) |
+               (canCastle(board, Alliance.WHITE, 60, 56)? WHITE_QUEEN_SIDE: 0) |
+               (canCastle(board, Alliance.BLACK, 4, 7)? BLACK_KING_SIDE: 0) |
+               (canCastle(board, Alliance.BLACK, 4, 0)? BLACK_QUEEN_SIDE: 0);
+    }
+
+    /*
+     * A method to determine whether or not an Alliance may still castle
+     * with the rook on the given coordinate. The king and the rook must
+     * both be unmoved, and the Alliance must not have castled already.
+     */
+    private static boolean canCastle(final Board board,
+                                     final Alliance alliance,
+                                     final int kingPosition,
+                                     final int rookPosition) {
+        final Piece king = board.getPiece(kingPosition);
+        final Piece rook = board.getPiece(rookPosition);
+        final boolean isCastled = alliance.isWhite()?
+                board.whitePlayer().isCastled(): board.blackPlayer().isCastled();
+        return !isCastled &&
+                king != null && king.getPieceType().isKing() &&
+                king.getPieceAlliance() == alliance && king.isFirstMove() &&
+                rook != null && rook.getPieceType().isRook() &&
+                rook.getPieceAlliance() == alliance && rook.isFirstMove();
+    }
+
+    /**
+     * A method to get the value of the piece of a piece index.
+     *
+     * @param pieceIndex the piece index
+     * @return the value of the piece
+     */
+    public static int pieceValue(final int pieceIndex) {
+        return PIECE_VALUES[pieceIndex];
+    }
+
+    /**
+     * A method to expose the side to move.
+     *
+     * @return {@code WHITE} or {@code BLACK}
+     */
+    public int getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /**
+     * A method to determine whether or not white is to move.
+     *
+     * @return whether or not white is to move
+     */
+    public boolean isWhiteToMove() {
+        return this.sideToMove == WHITE;
+    }
+
+    /**
+     * A method to expose the Zobrist key of the position. This equals the
+     * key of a {@code Board} describing the same position.
+     *
+     * @return the Zobrist key
+     * @see Board#zobristHash()
+     */
+    public long getKey() {
+        return this.key;
+    }
+
+    /*
+     * A method to compute the part of the hash key which does not depend on
+     * the placement of the pieces: the castling rights, the en passant
+     * square and the side to move.
+     */
+    private long stateKey() {
+        return Zobrist.castling(this.castlingRights) ^
+               (this.enPassantSquare != -1? Zobrist.enPassant(this.enPassantSquare): 0) ^
+               (this.sideToMove == BLACK? Zobrist.side(): 0);
+    }
+
+    /**
+     * A method to determine whether or not the position has occurred before,
+     * in the game or in the line being searched, since the last irreversible
+     * move. A null move counts as irreversible.
+     *
+     * @return whether or not the position is a repetition
+     */
+    public boolean isRepetition() {
+        return this.history.isRepetition();
+    }
+
+    /**
+     * A method to expose the number of moves made and not yet unmade.
+     *
+     * @return the ply
+     */
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * A method to get the piece index on a coordinate.
+     *
+     * @param coordinate the coordinate
+     * @return the piece index, or {@code NO_PIECE} if the coordinate is empty
+     */
+    public int getPiece(final int coordinate) {
+        return this.mailbox[coordinate];
+    }
+
+    /**
+     * A method to get the piece index captured by a move in this position.
+     *
+     * @param move the packed move
+     * @return the captured piece index, or {@code NO_PIECE} if nonesuch
+     */
+    public int getCapturedPiece(final int move) {
+        if(flag(move) == EN_PASSANT) return PAWN + 6 * (this.sideToMove ^ 1);
+        return isCapture(move)? this.mailbox[to(move)]: NO_PIECE;
+    }
+
+    /**
+     * A method to expose the bitboard of a piece index.
+     *
+     * @param pieceIndex the piece index
+     * @return the coordinates of all such pieces as a bitboard
+     */
+    public long getPieceBoard(final int pieceIndex) {
+        return this.pieceBoards[pieceIndex];
+    }
+
+    /**
+     * A method to expose the occupancy bitboard of a side.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return the coordinates of all pieces of the side as a bitboard
+     */
+    public long getOccupancy(final int side) {
+        return this.occupancy[side];
+    }
+
+    /**
+     * A method to indicate whether or not a side has castled.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return whether or not the side has castled
+     */
+    public boolean isCastled(final int side) {
+        return (this.status & (side == WHITE? WHITE_CASTLED: BLACK_CASTLED)) != 0;
+    }
+
+    /**
+     * A method to indicate whether or not a side has promoted a pawn.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return whether or not the side has promoted
+     */
+    public boolean hasPromoted(final int side) {
+        return (this.status & (side == WHITE? WHITE_PROMOTED: BLACK_PROMOTED)) != 0;
+    }
+
+    /**
+     * A method to get the coordinate of the king of a side.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return the coordinate of the king
+     */
+    public int kingSquare(final int side) {
+        return BitBoard.firstSquare(this.pieceBoards[KING + 6 * side]);
+    }
+
+    /**
+     * A method to determine whether or not a side has any piece other than
+     * its pawns and its king. A side without one is the likeliest to be in
+     * zugzwang.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return whether or not the side has a knight, bishop, rook or queen
+     */
+    public boolean hasNonPawnMaterial(final int side) {
+        final int offset = 6 * side;
+        return (this.pieceBoards[KNIGHT + offset] | this.pieceBoards[BISHOP + offset] |
+                this.pieceBoards[ROOK + offset] | this.pieceBoards[QUEEN + offset]) != BitBoard.EMPTY;
+    }
+
+    /**
+     * A method to get the last move made and not yet unmade.
+     *
+     * @return the last move, or {@code NO_MOVE} if there is none or it was a null move
+     */
+    public int getLastMove() {
+        return this.ply > 0? this.moveStack[this.ply - 1]: NO_MOVE;
+    }
+
+    /**
+     * A method to determine whether or not the last move made was a null
+     * move.
+     *
+     * @return whether or not the last move made was a null move
+     */
+    public boolean isAfterNullMove() {
+        return this.ply > 0 && this.moveStack[this.ply - 1] == NO_MOVE;
+    }
+
+    /**
+     * A method to determine whether or not the side to move is in check.
+     *
+     * @return whether or not the side to move is in check
+     */
+    public boolean isInCheck() {
+        return isSquareAttacked(kingSquare(this.sideToMove), this.sideToMove ^ 1);
+    }
+
+    /**
+     * A method to determine whether or not a side attacks a coordinate.
+     *
+     * @param coordinate the coordinate
+     * @param side the attacking side
+     * @return whether or not any piece of the side attacks the coordinate
+     */
+    public boolean isSquareAttacked(final int coordinate, final int side) {
+        return attackersOf(coordinate, side, this.occupancy[WHITE] | this.occupancy[BLACK]) != BitBoard.EMPTY;
+    }
+
+    /*
+     * A method to find the pieces of a side which attack a coordinate, given
+     * the occupancy that blocks the sliding pieces.
+     */
+    private long attackersOf(final int coordinate, final int side, final long all) {
+        final int offset = 6 * side;
+        final long square = BitBoard.squareOf(coordinate);
+        final long queens = this.pieceBoards[QUEEN + offset];
+        return (pawnAttacks(side ^ 1, square) & this.pieceBoards[PAWN + offset]) |
+               (AttackTables.knightAttacks(coordinate) & this.pieceBoards[KNIGHT + offset]) |
+               (AttackTables.kingAttacks(coordinate) & this.pieceBoards[KING + offset]) |
+               (AttackTables.bishopAttacks(coordinate, all) & (this.pieceBoards[BISHOP + offset] | queens)) |
+               (AttackTables.rookAttacks(coordinate, all) & (this.pieceBoards[ROOK + offset] | queens));
+    }
+
+    /*
+     * A method to find every coordinate attacked by a side, given the
+     * occupancy that blocks the sliding pieces.
+     */
+    private long attacksOf(final int side, final long all) {
+        final int offset = 6 * side;
+        final long queens = this.pieceBoards[QUEEN + offset];
+        long attacks = pawnAttacks(side, this.pieceBoards[PAWN + offset]) |
+                       knightAttacks(this.pieceBoards[KNIGHT + offset]) |
+                       kingAttacks(this.pieceBoards[KING + offset]);
+        for(long b = this.pieceBoards[BISHOP + offset] | queens; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            attacks |= AttackTables.bishopAttacks(BitBoard.firstSquare(b), all);
+        }
+        for(long b = this.pieceBoards[ROOK + offset] | queens; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            attacks |= AttackTables.rookAttacks(BitBoard.firstSquare(b), all);
+        }
+        return attacks;
+    }
+
+    /**
+     * A method to statically evaluate the exchange which a move begins on its
+     * destination. Both sides take turns recapturing on the destination with
+     * their least valuable attacker, including the attackers uncovered behind
+     * the pieces which have captured, and either side may stop whenever going
+     * on would lose material. Pins are ignored, but a king never captures
+     * onto an attacked square.
+     *
+     * @param move a packed move generated for this position
+     * @return the material won by the side to move, or lost if negative
+     */
+    public int see(final int move) {
+        final int to = to(move);
+        final int captured = getCapturedPiece(move);
+        final int[] gain = this.swapList;
+        long all = this.occupancy[WHITE] | this.occupancy[BLACK];
+        all ^= BitBoard.squareOf(from(move));
+        if(flag(move) == EN_PASSANT) all ^= BitBoard.squareOf(this.sideToMove == WHITE? to + 8: to - 8);
+        gain[0] = captured == NO_PIECE? 0: PIECE_VALUES[captured];
+        int target = this.mailbox[from(move)];
+        if(isPromotion(move)) {
+            target = promotionPiece(move) + 6 * this.sideToMove;
+            gain[0] += PIECE_VALUES[target] - PIECE_VALUES[PAWN];
+        }
+        int side = this.sideToMove ^ 1;
+        int depth = 0;
+        while(true) {
+            final long attackers = (attackersOf(to, WHITE, all) | attackersOf(to, BLACK, all)) & all;
+            final long ownAttackers = attackers & this.occupancy[side];
+            if(ownAttackers == BitBoard.EMPTY) break;
+            int attacker = PAWN + 6 * side;
+            while((ownAttackers & this.pieceBoards[attacker]) == BitBoard.EMPTY) attacker++;
+            if(attacker % 6 == KING && (attackers & this.occupancy[side ^ 1]) != BitBoard.EMPTY) break;
+            depth++;
+            gain[depth] = PIECE_VALUES[target] - gain[depth - 1];
+            if(Math.max(-gain[depth - 1], gain[depth]) < 0) break;
+            all ^= Long.lowestOneBit(ownAttackers & this.pieceBoards[attacker]);
+            target = attacker;
+            side ^= 1;
+        }
+        while(depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * A method to calculate the coordinates attacked by the pawns of a side.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @param pawns the pawns as a bitboard
+     * @return the attacked coordinates as a bitboard
+     */
+    public static long pawnAttacks(final int side, final long pawns) {
+        return side == WHITE?
+                ((pawns & ~BitBoard.FIRST_COLUMN) >>> 9) | ((pawns & ~BitBoard.EIGHTH_COLUMN) >>> 7):
+                ((pawns & ~BitBoard.FIRST_COLUMN) << 7) | ((pawns & ~BitBoard.EIGHTH_COLUMN) << 9);
+    }
+
+    /**
+     * A method to calculate the coordinates attacked by a set of knights.
+     *
+     * @param knights the knights as a bitboard
+     * @return the attacked coordinates as a bitboard
+     */
+    public static long knightAttacks(final long knights) {
+        final long oneColumn = ((knights >>> 1) & ~BitBoard.EIGHTH_COLUMN) |
+                               ((knights << 1) & ~BitBoard.FIRST_COLUMN);
+        final long twoColumns = ((knights >>> 2) & ~(BitBoard.EIGHTH_COLUMN | (BitBoard.EIGHTH_COLUMN >>> 1))) |
+                                ((knights << 2) & ~(BitBoard.FIRST_COLUMN | (BitBoard.FIRST_COLUMN << 1)));
+        return (oneColumn << 16) | (oneColumn >>> 16) | (twoColumns << 8) | (twoColumns >>> 8);
+    }
+
+    /**
+     * A method to calculate the coordinates attacked by a set of kings.
+     *
+     * @param kings the kings as a bitboard
+     * @return the attacked coordinates as a bitboard
+     */
+    public static long kingAttacks(final long kings) {
+        final long sideways = ((kings >>> 1) & ~BitBoard.EIGHTH_COLUMN) |
+                              ((kings << 1) & ~BitBoard.FIRST_COLUMN);
+        final long row = kings | sideways;
+        return sideways | (row << 8) | (row >>> 8);
+    }
+
+    /**
+     * A method to generate the strictly legal moves of the side to move.
+     *
+     * <p>
+     * No move is made to test its legality. The king may only step onto
+     * coordinates that the enemy would attack with the king out of the way
+     * (the king-danger squares). In double check, only the king may move. In
+     * single check, every other piece must capture the checker or block its
+     * ray (the check mask). A piece pinned to its king may only move along
+     * the ray between the king and the pinning piece (its pin ray). Only an
+     * en passant capture, which removes two pieces from a row, is verified
+     * by making it.
+     *
+     * @param moves the buffer to write the moves into, at least {@link PackedMove#MAX_MOVES} long
+     * @return the number of moves written
+     */
+    public int generateMoves(final int[] moves) {
+        return generateMoves(moves, 0, ~BitBoard.EMPTY, ALL_MOVES);
+    }
+
+    /**
+     * A method to generate the strictly legal captures of the side to move,
+     * including the en passant captures and the promotions which capture.
+     *
+     * @param moves the buffer to write the moves into
+     * @param count the index at which to start writing
+     * @return the index after the last move written
+     */
+    public int generateCaptures(final int[] moves, final int count) {
+        return generateMoves(moves, count, ~BitBoard.EMPTY, CAPTURES);
+    }
+
+    /**
+     * A method to generate the strictly legal captures of the side to move,
+     * as {@link #generateCaptures(int[], int)} does, and then its promotions
+     * which capture nothing: the moves of a quiescence search.
+     *
+     * @param moves the buffer to write the moves into
+     * @param count the index at which to start writing
+     * @return the index after the last move written
+     */
+    public int generateCapturesAndPromotions(final int[] moves, final int count) {
+        return generateMoves(moves, count, ~BitBoard.EMPTY, CAPTURES | QUIET_PROMOTIONS);
+    }
+
+    /**
+     * A method to generate the strictly legal moves of the side to move
+     * which capture nothing, including the castles and the promotions which
+     * capture nothing. Together with {@link #generateCaptures(int[], int)},
+     * these are exactly the moves of {@link #generateMoves(int[])}.
+     *
+     * @param moves the buffer to write the moves into
+     * @param count the index at which to start writing
+     * @return the index after the last move written
+     */
+    public int generateQuietMoves(final int[] moves, final int count) {
+        return generateMoves(moves, count, ~BitBoard.EMPTY, QUIET_MOVES);
+    }
+
+    /**
+     * A method to determine whether or not a packed move is legal in this
+     * position, such as a move found in a transposition table, which may
+     * belong to another position. Only the moves of the piece on the origin
+     * of the move are generated to find it.
+     *
+     * @param move the packed move
+     * @return whether or not the move is legal
+     */
+    public boolean isLegal(final int move) {
+        final int from = PackedMove.from(move);
+        final int piece = this.mailbox[from];
+        if(piece == NO_PIECE || piece / 6 != this.sideToMove) return false;
+        final int count = generateMoves(this.scratch, 0, BitBoard.squareOf(from),
+                PackedMove.isCapture(move)? CAPTURES: QUIET_MOVES);
+        for(int i = 0; i < count; i++) if(this.scratch[i] == move) return true;
+        return false;
+    }
+
+    /*
+     * A method to generate the legal moves of the given kinds of the pieces
+     * of the side to move on the given origins, starting at the given index.
+     */
+    private int generateMoves(final int[] moves, int count, final long origins, final int kinds) {
+        final int us = this.sideToMove;
+        final int them = us ^ 1;
+        final int offset = 6 * us;
+        final long own = this.occupancy[us];
+        final long enemy = this.occupancy[them];
+        final long all = own | enemy;
+        final int king = kingSquare(us);
+        final long kingBoard = BitBoard.squareOf(king);
+        final long destinations = ((kinds & CAPTURES) != 0? enemy: BitBoard.EMPTY) |
+                                  ((kinds & QUIET_MOVES) != 0? ~all: BitBoard.EMPTY);
+
+        // The king.
+        final long danger = attacksOf(them, all ^ kingBoard);
+        final boolean isKingMoving = BitBoard.contains(origins, king);
+        if(isKingMoving) count = addMoves(moves, count, king, kingAttacks(kingBoard) & destinations & ~danger, enemy);
+        final long checkers = attackersOf(king, them, all);
+        if(BitBoard.withoutFirstSquare(checkers) != BitBoard.EMPTY) return count;
+        final long checkMask = checkers == BitBoard.EMPTY? ~BitBoard.EMPTY:
+                checkers | AttackTables.between(king, BitBoard.firstSquare(checkers));
+        final long target = destinations & checkMask;
+        final long pawnTarget = (destinations |
+                ((kinds & QUIET_PROMOTIONS) != 0? ~all & PROMOTION_ROWS: BitBoard.EMPTY)) & checkMask;
+        final long pinned = findPinned(king, own, enemy, them);
+
+        // Pawns.
+        final long pawns = this.pieceBoards[PAWN + offset] & origins;
+        count = addPawnMoves(moves, count, us, pawns & ~pinned, all, enemy, pawnTarget);
+        for(long b = pawns & pinned; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int from = BitBoard.firstSquare(b);
+            count = addPawnMoves(moves, count, us, BitBoard.squareOf(from), all, enemy, pawnTarget & this.pinRays[from]);
+        }
+        if(this.enPassantSquare != -1 && (kinds & CAPTURES) != 0) {
+            long attackers = pawnAttacks(them, BitBoard.squareOf(this.enPassantSquare)) & pawns;
+            for(; attackers != BitBoard.EMPTY; attackers = BitBoard.withoutFirstSquare(attackers)){
+                final int move = encode(BitBoard.firstSquare(attackers), this.enPassantSquare, EN_PASSANT);
+                make(move);
+                if(!isSquareAttacked(king, them)) moves[count++] = move;
+                unmake();
+            }
+        }
+
+        // Pieces. A pinned knight may never move.
+        for(long b = this.pieceBoards[KNIGHT + offset] & origins & ~pinned; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int from = BitBoard.firstSquare(b);
+            count = addMoves(moves, count, from, AttackTables.knightAttacks(from) & target, enemy);
+        }
+        for(long b = this.pieceBoards[BISHOP + offset] & origins; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int from = BitBoard.firstSquare(b);
+            count = addMoves(moves, count, from, AttackTables.bishopAttacks(from, all) & pinRay(from, pinned, target), enemy);
+        }
+        for(long b = this.pieceBoards[ROOK + offset] & origins; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int from = BitBoard.firstSquare(b);
+            count = addMoves(moves, count, from, AttackTables.rookAttacks(from, all) & pinRay(from, pinned, target), enemy);
+        }
+        for(long b = this.pieceBoards[QUEEN + offset] & origins; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int from = BitBoard.firstSquare(b);
+            count = addMoves(moves, count, from, AttackTables.queenAttacks(from, all) & pinRay(from, pinned, target), enemy);
+        }
+
+        // Castles, which are never legal out of check.
+        if(checkers == BitBoard.EMPTY && isKingMoving && (kinds & QUIET_MOVES) != 0) {
+            if(us == WHITE) {
+                if((this.castlingRights & WHITE_KING_SIDE) != 0 &&
+                   (all & 0x6000000000000000L) == 0 && (danger & 0x6000000000000000L) == 0) {
+                    moves[count++] = encode(60, 62, KING_CASTLE);
+                }
+                if((this.castlingRights & WHITE_QUEEN_SIDE) != 0 &&
+                   (all & 0x0E00000000000000L) == 0 && (danger & 0x0C00000000000000L) == 0) {
+                    moves[count++] = encode(60, 58, QUEEN_CASTLE);
+                }
+            } else {
+                if((this.castlingRights & BLACK_KING_SIDE) != 0 &&
+                   (all & 0x60L) == 0 && (danger & 0x60L) == 0) {
+                    moves[count++] = encode(4, 6, KING_CASTLE);
+                }
+                if((this.castlingRights & BLACK_QUEEN_SIDE) != 0 &&
+                   (all & 0x0EL) == 0 && (danger & 0x0CL) == 0) {
+                    moves[count++] = encode(4, 2, QUEEN_CASTLE);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A method to determine whether or not the side to move has a legal move.
+     *
+     * @return whether or not the side to move has a legal move
+     */
+    public boolean hasLegalMoves() {
+        return generateMoves(this.scratch) != 0;
+    }
+
+    /*
+     * A method to find the pieces of the side to move which are pinned to
+     * their king, recording the pin ray of each one. An enemy slider pins a
+     * piece if that piece is the only one between the slider and the king.
+     */
+    private long findPinned(final int king, final long own, final long enemy, final int them) {
+        final int offset = 6 * them;
+        final long queens = this.pieceBoards[QUEEN + offset];
+        long snipers = (AttackTables.rookAttacks(king, enemy) & (this.pieceBoards[ROOK + offset] | queens)) |
+                       (AttackTables.bishopAttacks(king, enemy) & (this.pieceBoards[BISHOP + offset] | queens));
+        long pinned = BitBoard.EMPTY;
+        for(; snipers != BitBoard.EMPTY; snipers = BitBoard.withoutFirstSquare(snipers)){
+            final int sniper = BitBoard.firstSquare(snipers);
+            final long ray = AttackTables.between(king, sniper);
+            final long blockers = ray & (own | enemy);
+            if(blockers != BitBoard.EMPTY && BitBoard.withoutFirstSquare(blockers) == BitBoard.EMPTY &&
+               (blockers & own) != BitBoard.EMPTY) {
+                pinned |= blockers;
+                this.pinRays[BitBoard.firstSquare(blockers)] = ray | BitBoard.squareOf(sniper);
+            }
+        }
+        return pinned;
+    }
+
+    /*
+     * A method to restrict the target coordinates of a piece to its pin ray,
+     * if it is pinned.
+     */
+    private long pinRay(final int from, final long pinned, final long target) {
+        return BitBoard.contains(pinned, from)? target & this.pinRays[from]: target;
+    }
+
+    /*
+     * A method to add the pushes and captures (but not the en passant
+     * captures) of a set of pawns onto the target coordinates.
+     */
+    private static int addPawnMoves(final int[] moves,
+                                    int count,
+                                    final int us,
+                                    final long pawns,
+                                    final long all,
+                                    final long enemy,
+                                    final long target) {
+        final int forward = us == WHITE? -8: 8;
+        final long singlePushes = (us == WHITE? pawns >>> 8: pawns << 8) & ~all;
+        final long doublePushes = (us == WHITE?
+                (singlePushes & WHITE_DOUBLE_PUSH_ROW) >>> 8:
+                (singlePushes & BLACK_DOUBLE_PUSH_ROW) << 8) & ~all & target;
+        count = addPawnMoves(moves, count, singlePushes & target, -forward, QUIET);
+        for(long b = doublePushes; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            final int to = BitBoard.firstSquare(b);
+            moves[count++] = encode(to - 2 * forward, to, DOUBLE_PUSH);
+        }
+        final long captures = enemy & target;
+        if(us == WHITE) {
+            count = addPawnMoves(moves, count, ((pawns & ~BitBoard.FIRST_COLUMN) >>> 9) & captures, 9, CAPTURE);
+            count = addPawnMoves(moves, count, ((pawns & ~BitBoard.EIGHTH_COLUMN) >>> 7) & captures, 7, CAPTURE);
+        } else {
+            count = addPawnMoves(moves, count, ((pawns & ~BitBoard.FIRST_COLUMN) << 7) & captures, -7, CAPTURE);
+            count = addPawnMoves(moves, count, ((pawns & ~BitBoard.EIGHTH_COLUMN) << 9) & captures, -9, CAPTURE);
+        }
+        return count;
+    }
+
+    /*
+     * A method to add the pawn moves onto each destination of a bitboard,
+     * given the distance from the destination back to the origin. A move onto
+     * the first or eighth row becomes one promotion for each promotion piece.
+     */
+    private static int addPawnMoves(final int[] moves,
+                                    int count,
+                                    long destinations,
+                                    final int back,
+                                    final int flag) {
+        for(; destinations != BitBoard.EMPTY; destinations = BitBoard.withoutFirstSquare(destinations)){
+            final int to = BitBoard.firstSquare(destinations);
+            if(to < 8 || to >= 56) {
+                for(final PieceType promotionType: PROMOTION_TYPES){
+                    moves[count++] = encode(to + back, to, flag | PROMOTION, promotionType);
+                }
+            } else moves[count++] = encode(to + back, to, flag);
+        }
+        return count;
+    }
+
+    /*
+     * A method to add the moves of a piece from an origin onto each
+     * destination of a bitboard.
+     */
+    private static int addMoves(final int[] moves,
+                                int count,
+                                final int from,
+                                long destinations,
+                                final long enemy) {
+        for(; destinations != BitBoard.EMPTY; destinations = BitBoard.withoutFirstSquare(destinations)){
+            final int to = BitBoard.firstSquare(destinations);
+            moves[count++] = encode(from, to, BitBoard.contains(enemy, to)? CAPTURE: QUIET);
+        }
+        return count;
+    }
+
+    /**
+     * A method to count the pseudo-legal moves of a side, not counting castles
+     * or en passant captures. This is a cheap measure of mobility that does
+     * not generate any moves.
+     *
+     * @param side {@code WHITE} or {@code BLACK}
+     * @return the number of pseudo-legal moves of the side
+     */
+    public int mobility(final int side) {
+        final int offset = 6 * side;
+        final long own = this.occupancy[side];
+        final long enemy = this.occupancy[side ^ 1];
+        final long all = own | enemy;
+        final long pawns = this.pieceBoards[PAWN + offset];
+        final long singlePushes = (side == WHITE? pawns >>> 8: pawns << 8) & ~all;
+        final long doublePushes = (side == WHITE?
+                (singlePushes & WHITE_DOUBLE_PUSH_ROW) >>> 8:
+                (singlePushes & BLACK_DOUBLE_PUSH_ROW) << 8) & ~all;
+        int count = BitBoard.count(singlePushes) + BitBoard.count(doublePushes);
+        if(side == WHITE) {
+            count += BitBoard.count(((pawns & ~BitBoard.FIRST_COLUMN) >>> 9) & enemy) +
+                     BitBoard.count(((pawns & ~BitBoard.EIGHTH_COLUMN) >>> 7) & enemy);
+        } else {
+            count += BitBoard.count(((pawns & ~BitBoard.FIRST_COLUMN) << 7) & enemy) +
+                     BitBoard.count(((pawns & ~BitBoard.EIGHTH_COLUMN) << 9) & enemy);
+        }
+        for(long b = this.pieceBoards[KNIGHT + offset]; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            count += BitBoard.count(AttackTables.knightAttacks(BitBoard.firstSquare(b)) & ~own);
+        }
+        for(long b = this.pieceBoards[BISHOP + offset]; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            count += BitBoard.count(AttackTables.bishopAttacks(BitBoard.firstSquare(b), all) & ~own);
+        }
+        for(long b = this.pieceBoards[ROOK + offset]; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            count += BitBoard.count(AttackTables.rookAttacks(BitBoard.firstSquare(b), all) & ~own);
+        }
+        for(long b = this.pieceBoards[QUEEN + offset]; b != BitBoard.EMPTY; b = BitBoard.withoutFirstSquare(b)){
+            count += BitBoard.count(AttackTables.queenAttacks(BitBoard.firstSquare(b), all) & ~own);
+        }
+        return count + BitBoard.count(kingAttacks(this.pieceBoards[KING + offset]) & ~own);
+    }
+
+    /**
+     * A method to make a move. The move must have been generated for this
+     * position by {@link #generateMoves(int[])}.
+     *
+     * @param move the packed move
+     */
+    public void make(final int move) {
+        final int from = from(move);
+        final int to = to(move);
+        final int flag = flag(move);
+        final int us = this.sideToMove;
+        final int piece = this.mailbox[from];
+
+        this.moveStack[this.ply] = move;
+        this.castlingStack[this.ply] = this.castlingRights;
+        this.enPassantStack[this.ply] = this.enPassantSquare;
+        this.statusStack[this.ply] = this.status;
+        this.keyStack[this.ply] = this.key;
+
+        int captured = NO_PIECE;
+        if(flag == EN_PASSANT) {
+            final int capturedSquare = us == WHITE? to + 8: to - 8;
+            captured = this.mailbox[capturedSquare];
+            remove(captured, capturedSquare);
+            this.key ^= Zobrist.piece(captured, capturedSquare);
+        } else if((flag & CAPTURE) != 0) {
+            captured = this.mailbox[to];
+            remove(captured, to);
+            this.key ^= Zobrist.piece(captured, to);
+        }
+        this.capturedStack[this.ply] = captured;
+
+        shift(piece, from, to);
+        this.key ^= Zobrist.piece(piece, from) ^ Zobrist.piece(piece, to);
+
+        if((flag & PROMOTION) != 0) {
+            final int promoted = promotionPiece(move) + 6 * us;
+            remove(piece, to);
+            put(promoted, to);
+            this.key ^= Zobrist.piece(piece, to) ^ Zobrist.piece(promoted, to);
+            this.status |= us == WHITE? WHITE_PROMOTED: BLACK_PROMOTED;
+        } else if(flag == KING_CASTLE || flag == QUEEN_CASTLE) {
+            final int rook = ROOK + 6 * us;
+            final int rookFrom = flag == KING_CASTLE? to + 1: to - 2;
+            final int rookTo = flag == KING_CASTLE? to - 1: to + 1;
+            shift(rook, rookFrom, rookTo);
+            this.key ^= Zobrist.piece(rook, rookFrom) ^ Zobrist.piece(rook, rookTo);
+            this.status |= us == WHITE? WHITE_CASTLED: BLACK_CASTLED;
+        }
+
+        final int castlingRights = this.castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to];
+        final boolean isIrreversible = captured != NO_PIECE || piece == PAWN + 6 * us ||
+                castlingRights != this.castlingRights;
+        if(castlingRights != this.castlingRights) {
+            this.key ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+            this.castlingRights = castlingRights;
+        }
+        if(this.enPassantSquare != -1) this.key ^= Zobrist.enPassant(this.enPassantSquare);
+        this.enPassantSquare = flag == DOUBLE_PUSH? (from + to) >>> 1: -1;
+        if(this.enPassantSquare != -1) this.key ^= Zobrist.enPassant(this.enPassantSquare);
+        this.sideToMove = us ^ 1;
+        this.key ^= Zobrist.side();
+        this.history.push(this.key, isIrreversible);
+        this.ply++;
+    }
+
+    /**
+     * A method to make a null move: to pass the turn to the other side
+     * without moving a piece. The side to move must not be in check.
+     */
+    public void makeNullMove() {
+        this.moveStack[this.ply] = NO_MOVE;
+        this.castlingStack[this.ply] = this.castlingRights;
+        this.enPassantStack[this.ply] = this.enPassantSquare;
+        this.statusStack[this.ply] = this.status;
+        this.keyStack[this.ply] = this.key;
+        this.capturedStack[this.ply] = NO_PIECE;
+        if(this.enPassantSquare != -1) this.key ^= Zobrist.enPassant(this.enPassantSquare);
+        this.enPassantSquare = -1;
+        this.sideToMove ^= 1;
+        this.key ^= Zobrist.side();
+        this.history.push(this.key, true);
+        this.ply++;
+    }
+
+    /**
+     * A method to unmake the last move made, which must be a null move.
+     */
+    public void unmakeNullMove() {
+        this.ply--;
+        this.history.pop();
+        this.enPassantSquare = this.enPassantStack[this.ply];
+        this.key = this.keyStack[this.ply];
+        this.sideToMove ^= 1;
+    }
+
+    /**
+     * A method to unmake the last move made.
+     */
+    public void unmake() {
+        this.ply--;
+        this.history.pop();
+        final int move = this.moveStack[this.ply];
+        final int from = from(move);
+        final int to = to(move);
+        final int flag = flag(move);
+        final int us = this.sideToMove ^ 1;
+
+        if((flag & PROMOTION) != 0) {
+            remove(promotionPiece(move) + 6 * us, to);
+            put(PAWN + 6 * us, to);
+        } else if(flag == KING_CASTLE || flag == QUEEN_CASTLE) {
+            final int rookFrom = flag == KING_CASTLE? to + 1: to - 2;
+            final int rookTo = flag == KING_CASTLE? to - 1: to + 1;
+            shift(ROOK + 6 * us, rookTo, rookFrom);
+        }
+        shift(this.mailbox[to], to, from);
+
+        final int captured = this.capturedStack[this.ply];
+        if(captured != NO_PIECE) put(captured, flag == EN_PASSANT? (us == WHITE? to + 8: to - 8): to);
+
+        this.castlingRights = this.castlingStack[this.ply];
+        this.enPassantSquare = this.enPassantStack[this.ply];
+        this.status = this.statusStack[this.ply];
+        this.key = this.keyStack[this.ply];
+        this.sideToMove = us;
+    }
+
+    /*
+     * A method to put a piece onto an empty coordinate.
+     */
+    private void put(final int piece, final int coordinate) {
+        final long square = BitBoard.squareOf(coordinate);
+        this.pieceBoards[piece] |= square;
+        this.occupancy[piece < 6? WHITE: BLACK] |= square;
+        this.mailbox[coordinate] = piece;
+    }
+
+    /*
+     * A method to remove a piece from its coordinate.
+     */
+    private void remove(final int piece, final int coordinate) {
+        final long square = BitBoard.squareOf(coordinate);
+        this.pieceBoards[piece] ^= square;
+        this.occupancy[piece < 6? WHITE: BLACK] ^= square;
+        this.mailbox[coordinate] = NO_PIECE;
+    }
+
+    /*
+     * A method to move a piece from one coordinate onto an empty coordinate.
+     */
+    private void shift(final int piece, final int from, final int to) {
+        final long squares = BitBoard.squareOf(from) | BitBoard.squareOf(to);
+        this.pieceBoards[piece] ^= squares;
+        this.occupancy[piece < 6? WHITE: BLACK] ^= squares;
+        this.mailbox[from] = NO_PIECE;
+        this.mailbox[to] = piece;
+    }
+
+}
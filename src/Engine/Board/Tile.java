@@ -2,7 +2,9 @@ package Engine.Board;
 
 import java.util.*;
 
+import Engine.Pieces.Alliance;
 import Engine.Pieces.Piece;
+import Engine.Pieces.Piece.PieceType;
 
 /**
  * Tile
@@ -30,6 +32,32 @@ public abstract class Tile {
 		EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
 	}
 
+	/**
+	 * A cache of all possible occupied tiles, one for each shared {@code Piece}
+	 * instance, indexed by piece bitboard index and then by position, with
+	 * unmoved {@code Piece}s in the upper half.
+	 */
+	private static final OccupiedTile[][] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
+
+	/*
+	 * A method to initialize the occupied tiles cache.
+	 */
+	private static OccupiedTile[][] createAllPossibleOccupiedTiles(){
+		final OccupiedTile[][] occupiedTiles =
+				new OccupiedTile[BitBoard.NUMBER_OF_PIECE_BOARDS][2 * Utility.NUMBER_OF_TILES];
+		for(final Alliance alliance: Alliance.values()){
+			for(final PieceType pieceType: PieceType.values()){
+				if(pieceType == PieceType.NULL) continue;
+				final OccupiedTile[] tiles = occupiedTiles[BitBoard.pieceIndex(pieceType, alliance)];
+				for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
+					tiles[i] = new OccupiedTile(i, Piece.instance(pieceType, i, alliance, false));
+					tiles[i + Utility.NUMBER_OF_TILES] = new OccupiedTile(i, Piece.instance(pieceType, i, alliance, true));
+				}
+			}
+		}
+		return occupiedTiles;
+	}
+
 	/*
 	 * A method to initialize the empty tiles cache.
 	 */
@@ -44,15 +72,23 @@ public abstract class Tile {
 	/**
 	 * This is a Factory method to return a {@code Tile} given a coordinate and a {@code Piece}.
 	 * If the {@code Piece} argument is null, the {@code EmptyTile} at the given coordinate will
-	 * be taken directly from a static cache. Otherwise, this method will instantiate and return
-	 * a new {@code OccupiedTile}.
+	 * be taken directly from a static cache. Otherwise, the {@code OccupiedTile} of the shared
+	 * {@code Piece} instance will be taken from a static cache as well. Only a {@code Piece}
+	 * which is not shared, such as a {@code ShowcasePiece}, is given a new {@code OccupiedTile}.
 	 *
 	 * @param coordinate the coordinate of the {@code Tile} on the current {@code Board}
 	 * @param piece the {@code Piece} at the given coordinate. (null if there is no {@code Piece})
-	 * @return a new {@code Tile}
+	 * @return a {@code Tile}
 	 */
 	public static Tile createTile(final int coordinate, final Piece piece) {
-		return (piece != null)? new OccupiedTile(coordinate, piece): EMPTY_TILES_CACHE.get(coordinate);
+		if(piece == null) return EMPTY_TILES_CACHE.get(coordinate);
+		if(!piece.isShowcased() && piece.getPiecePosition() == coordinate) {
+			final OccupiedTile tile = OCCUPIED_TILES_CACHE[
+					BitBoard.pieceIndex(piece.getPieceType(), piece.getPieceAlliance())
+			][coordinate + (piece.isFirstMove()? Utility.NUMBER_OF_TILES: 0)];
+			if(tile.pieceOnTile == piece) return tile;
+		}
+		return new OccupiedTile(coordinate, piece);
 	}
 
 	/**
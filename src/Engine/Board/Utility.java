@@ -233,6 +233,35 @@ public class Utility {
                         move.getAttackedPiece().toString()): "-") + " ";
     }
 
+    /**
+     * A method to parse a {@code Board} from a standard FEN String, as used by
+     * other engines and perft suites. A standard FEN names the en passant
+     * target square rather than the en passant {@code Pawn}, and carries move
+     * counters rather than the castled and promoted flags. The counters are
+     * ignored, no {@code Player} is considered castled or promoted, and the
+     * white {@code Player} is a user.
+     *
+     * @param fen the standard FEN {@code String} to analyze
+     * @return a {@code Board} set to the {@code String}'s specifications
+     * @see Utility#parseFEN(String)
+     */
+    public static Board parseStandardFEN(final String fen) {
+        final int MINIMUM_NUMBER_OF_SECTIONS = 4;
+        final String[] state = Pattern.compile("\\s+").split(fen.trim());
+        if(state.length < MINIMUM_NUMBER_OF_SECTIONS)
+            throw new IllegalArgumentException("FEN String is improperly formatted.");
+        final boolean isWhiteToMove = state[1].equals("w");
+        if(!isWhiteToMove && !state[1].equals("b"))
+            throw new IllegalArgumentException("'MOVE_MAKER' FEN section is improperly formatted.");
+        //The en passant pawn stands one row beyond the target square.
+        final String enPassant = state[3].equals("-")? "-": getPositionAtCoordinate(
+                getCoordinateAtPosition(state[3]) + (isWhiteToMove? NUMBER_OF_TILES_IN_ROW_OR_COLUMN:
+                        -NUMBER_OF_TILES_IN_ROW_OR_COLUMN)
+        );
+        return parseFEN(state[0] + " " + (isWhiteToMove? "W": "B") + " " + state[2] + " " +
+                enPassant + " ff ff U");
+    }
+
     /**
      * A method to parse a {@code Board} from a FEN String procedurally.
      *
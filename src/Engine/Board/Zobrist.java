@@ -0,0 +1,108 @@
+package Engine.Board;
+
+import java.util.Random;
+
+/**
+ * Zobrist
+ *
+ * <p>
+ * A class full of static Zobrist keys. The key of a position is the XOR of
+ * one key for each piece on each coordinate, one key for the castling rights,
+ * one key for the file of the en passant square (if any), and the side key
+ * if black is to move. Since XOR is its own inverse, a {@code Move} updates
+ * the key of its {@code Board} by XOR-ing out what it removes and XOR-ing in
+ * what it adds, in constant time.
+ *
+ * <p>
+ * The keys are drawn from a fixed seed, so that a position has the same key
+ * in every run, and so that a {@code Board} and a {@code SearchPosition}
+ * describing the same position always agree.
+ *
+ * @see Board#zobristHash()
+ * @see SearchPosition#getKey()
+ */
+public final class Zobrist {
+
+    /**
+     * The seed of the key generator.
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The number of castling right combinations.
+     */
+    private static final int CASTLING_COMBINATIONS = 16;
+
+    /**
+     * The keys.
+     */
+    private static final long[][] PIECE_KEYS;
+    private static final long[] CASTLING_KEYS;
+    private static final long[] EN_PASSANT_KEYS;
+    private static final long SIDE_KEY;
+
+    /** Static initialization block */
+    static {
+        final Random rgen = new Random(SEED);
+        PIECE_KEYS = new long[BitBoard.NUMBER_OF_PIECE_BOARDS][Utility.NUMBER_OF_TILES];
+        for(final long[] keys: PIECE_KEYS)
+            for(int i = 0; i < keys.length; i++) keys[i] = rgen.nextLong();
+        CASTLING_KEYS = new long[CASTLING_COMBINATIONS];
+        for(int i = 1; i < CASTLING_KEYS.length; i++) CASTLING_KEYS[i] = rgen.nextLong();
+        EN_PASSANT_KEYS = new long[Utility.NUMBER_OF_TILES_IN_ROW_OR_COLUMN];
+        for(int i = 0; i < EN_PASSANT_KEYS.length; i++) EN_PASSANT_KEYS[i] = rgen.nextLong();
+        SIDE_KEY = rgen.nextLong();
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * A method to get the key of a piece on a coordinate.
+     *
+     * @param pieceIndex the piece bitboard index
+     * @param coordinate the coordinate of the piece
+     * @return the key of the piece on the coordinate
+     * @see BitBoard#pieceIndex(Engine.Pieces.Piece.PieceType, Engine.Pieces.Alliance)
+     */
+    public static long piece(final int pieceIndex, final int coordinate) {
+        return PIECE_KEYS[pieceIndex][coordinate];
+    }
+
+    /**
+     * A method to get the key of a set of castling rights. The empty set has
+     * the key 0, so a position without castling rights hashes as if the
+     * rights did not exist.
+     *
+     * @param castlingRights the castling rights, as a four-bit set
+     * @return the key of the castling rights
+     * @see Board#getCastlingRights()
+     */
+    public static long castling(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * A method to get the key of an en passant square, which depends only on
+     * its column.
+     *
+     * @param coordinate the en passant square
+     * @return the key of the en passant square
+     */
+    public static long enPassant(final int coordinate) {
+        return EN_PASSANT_KEYS[coordinate & 7];
+    }
+
+    /**
+     * A method to get the key which is present if and only if black is to move.
+     *
+     * @return the side key
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+}
@@ -1,13 +1,8 @@
 package Engine.Pieces;
 
+import Engine.Board.AttackTables;
 import Engine.Board.Board;
 import Engine.Board.Move;
-import Engine.Board.Move.EliteMove;
-import Engine.Board.Move.EliteAttackMove;
-import Engine.Board.Utility;
-import Engine.Board.Tile;
-
-import java.util.*;
 
 import java.util.Collection;
 
@@ -20,13 +15,13 @@ import java.util.Collection;
 public final class King extends Piece {
 
     /**
-     * Coordinates to determine move direction on a one-dimensional representation
-     * of a chess board.
+     * Every possible {@code King}, indexed by
+     * {@link Piece#instanceIndex(int, Alliance, boolean)}.
      */
-    final static int[] CANDIDATE_MOVE_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final King[] INSTANCES = createInstances(new King[NUMBER_OF_INSTANCES], King::new);
 
     /**
-     * A factory method to instantiate a default {@code King} with {@code isFirstMove} set
+     * A factory method to return the default {@code King} with {@code isFirstMove} set
      * to true.
      *
      * @param piecePosition the position of the {@code King}
@@ -34,11 +29,11 @@ public final class King extends Piece {
      * @return a default {@code King}
      */
     public static King defaultInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new King(piecePosition, pieceAlliance, true);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, true)];
     }
 
     /**
-     * A factory method to instantiate a moved {@code King} with {@code isFirstMove} set
+     * A factory method to return the moved {@code King} with {@code isFirstMove} set
      * to false.
      *
      * @param piecePosition the position of the {@code King}
@@ -46,7 +41,7 @@ public final class King extends Piece {
      * @return a moved {@code King}
      */
     public static King movedInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new King(piecePosition, pieceAlliance, false);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, false)];
     }
 
     /*
@@ -63,28 +58,7 @@ public final class King extends Piece {
      */
     @Override
     public Collection<Move> calculateLegalMoves(Board board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int candidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            final int candidateCoordinate = this.piecePosition + candidateOffset;
-            if (Utility.isValidTileCoordinate(candidateCoordinate)) {
-                if (!isFirstColumnExclusion(this.piecePosition, candidateOffset)
-                        && !isEighthColumnExclusion(this.piecePosition, candidateOffset)) {
-                    final Tile candidateTile = board.getTile(candidateCoordinate);
-                    if (!candidateTile.isTileOccupied()) {
-                        legalMoves.add(new EliteMove(board, this, candidateCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new EliteAttackMove(
-                                    board, this, candidateCoordinate, pieceAtDestination
-                            ));
-                        }
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableCollection(legalMoves);
+        return calculateEliteMoves(board, AttackTables.kingAttacks(this.piecePosition));
     }
 
     /**
@@ -95,20 +69,4 @@ public final class King extends Piece {
         return movedInstance(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
-    /*
-     * Boolean methods to enhance the readability of legal move logic.
-     * Note: magic numbers are left in to simplify the expressions.
-     * These numbers are vector coordinates that the reader can easily
-     * plot in two dimensions (8x8 grid).
-     */
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return Utility.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == -1 ||
-                candidateOffset == 7);
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return Utility.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 1 ||
-                candidateOffset == 9);
-    }
-
 }
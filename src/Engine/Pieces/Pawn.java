@@ -1,5 +1,6 @@
 package Engine.Pieces;
 
+import Engine.Board.AttackTables;
 import Engine.Board.Board;
 import Engine.Board.Move;
 import Engine.Board.Move.PawnJump;
@@ -28,31 +29,31 @@ public final class Pawn extends Piece {
     private final int direction;
 
     /**
-     * Coordinates to determine the destination of the {Pawn}'s legal moves on a one-
-     * dimensional representation of a chess board.
+     * Every possible {@code Pawn}, indexed by
+     * {@link Piece#instanceIndex(int, Alliance, boolean)}.
      */
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {7, 8, 9, 16};
+    private static final Pawn[] INSTANCES = createInstances(new Pawn[NUMBER_OF_INSTANCES], Pawn::new);
 
     /**
-     * A factory method to instantiate a default {@code Pawn} with isFirstMove set to true.
+     * A factory method to return the default {@code Pawn} with isFirstMove set to true.
      *
      * @param piecePosition the {@code Pawn}'s position
      * @param pieceAlliance the {@code Pawn}'s {@code Alliance}
      * @return a default {@code Pawn}
      */
     public static Pawn defaultInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Pawn(piecePosition, pieceAlliance, true);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, true)];
     }
 
     /**
-     * A factory method to instantiate a moved {@code Pawn} with isFirstMove set to false.
+     * A factory method to return the moved {@code Pawn} with isFirstMove set to false.
      *
      * @param piecePosition the {@code Pawn}'s position
      * @param pieceAlliance the {@code Pawn}'s {@code Alliance}
      * @return a moved {@code Pawn}
      */
     public static Pawn movedInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Pawn(piecePosition, pieceAlliance, false);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, false)];
     }
 
     /*
@@ -69,71 +70,40 @@ public final class Pawn extends Piece {
     @Override
     public Collection<Move> calculateLegalMoves(Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for(final int candidateOffset: CANDIDATE_MOVE_COORDINATES) {
-            int candidateCoordinate = this.piecePosition + (candidateOffset * this.direction);
-            if(Utility.isValidTileCoordinate(candidateCoordinate)) {
-                if(candidateOffset == 8 && !board.getTile(candidateCoordinate).isTileOccupied()){
-                    if(this.pieceAlliance.isPawnPromotionTile(candidateCoordinate)) {
-                        legalMoves.add(new PawnPromotion(new PawnMove(
-                                board, this, candidateCoordinate
+        final int forward = Utility.NUMBER_OF_TILES_IN_ROW_OR_COLUMN * this.direction;
+        final int candidateCoordinate = this.piecePosition + forward;
+        if(Utility.isValidTileCoordinate(candidateCoordinate) && !board.isTileOccupied(candidateCoordinate)) {
+            if(this.pieceAlliance.isPawnPromotionTile(candidateCoordinate)) {
+                legalMoves.add(new PawnPromotion(new PawnMove(
+                        board, this, candidateCoordinate
+                )));
+            } else legalMoves.add(new PawnMove(board, this, candidateCoordinate));
+            final int jumpCoordinate = candidateCoordinate + forward;
+            if((Utility.SECOND_ROW[this.piecePosition] || Utility.SEVENTH_ROW[this.piecePosition]) &&
+                    Utility.isValidTileCoordinate(jumpCoordinate) && !board.isTileOccupied(jumpCoordinate)) {
+                legalMoves.add(new PawnJump(board, this, jumpCoordinate));
+            }
+        }
+        for(final int attackCoordinate: AttackTables.pawnSquares(this.piecePosition, this.pieceAlliance)) {
+            final Piece pieceOnCandidate = board.getPiece(attackCoordinate);
+            if(pieceOnCandidate != null) {
+                if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
+                    if(this.pieceAlliance.isPawnPromotionTile(attackCoordinate)) {
+                        legalMoves.add(new PawnPromotion(new PawnAttackMove(
+                                board, this, attackCoordinate, pieceOnCandidate
                         )));
-                    } else legalMoves.add(new PawnMove(board, this, candidateCoordinate));
-                } else if(candidateOffset == 16
-                        && (Utility.SECOND_ROW[this.piecePosition]
-                        || Utility.SEVENTH_ROW[this.piecePosition])){
-                    final int beneathCandidateCoordinate = this.piecePosition + (this.direction * 8);
-                    if(!board.getTile(beneathCandidateCoordinate).isTileOccupied() &&
-                       !board.getTile(candidateCoordinate).isTileOccupied()){
-                        legalMoves.add(new PawnJump(board, this, candidateCoordinate));
-                    }
-                } else if(!(Utility.FIRST_COLUMN[this.piecePosition] && this.direction == 1) &&
-                        !(Utility.EIGHTH_COLUMN[this.piecePosition] && this.direction == -1) &&
-                        candidateOffset == 7) {
-                    if(board.getTile(candidateCoordinate).isTileOccupied()){
-                        final Piece pieceOnCandidate = board.getTile(candidateCoordinate).getPiece();
-                        if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                            if(this.pieceAlliance.isPawnPromotionTile(candidateCoordinate)) {
-                                legalMoves.add(new PawnPromotion(new PawnAttackMove(
-                                        board, this, candidateCoordinate, pieceOnCandidate
-                                )));
-                            } else legalMoves.add(new PawnAttackMove(
-                                    board, this, candidateCoordinate, pieceOnCandidate
-                            ));
-                        }
-                    } else if(board.getEnPassantPawn() != null) {
-                        if(board.getEnPassantPawn().getPiecePosition() == (this.piecePosition - this.direction)){
-                            final Piece pieceOnCandidate = board.getEnPassantPawn();
-                            if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                                legalMoves.add(new PawnEnPassantAttackMove(
-                                        board, this, candidateCoordinate, pieceOnCandidate
-                                ));
-                            }
-                        }
-                    }
-                } else if(!(Utility.FIRST_COLUMN[this.piecePosition] && this.direction == -1) &&
-                        !(Utility.EIGHTH_COLUMN[this.piecePosition] && this.direction == 1) &&
-                        candidateOffset == 9) {
-                    if(board.getTile(candidateCoordinate).isTileOccupied()){
-                        final Piece pieceOnCandidate = board.getTile(candidateCoordinate).getPiece();
-                        if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                            if(this.pieceAlliance.isPawnPromotionTile(candidateCoordinate)) {
-                                legalMoves.add(new PawnPromotion(new PawnAttackMove(
-                                        board, this, candidateCoordinate, pieceOnCandidate
-                                )));
-                            } else legalMoves.add(new PawnAttackMove(
-                                    board, this, candidateCoordinate, pieceOnCandidate
-                            ));
-                        }
-                    }else if(board.getEnPassantPawn() != null){
-                        if(board.getEnPassantPawn().getPiecePosition() == (this.piecePosition + this.direction)){
-                            final Piece pieceOnCandidate = board.getEnPassantPawn();
-                            if(this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                                legalMoves.add(new PawnEnPassantAttackMove(
-                                        board, this, candidateCoordinate, pieceOnCandidate
-                                ));
-                            }
-                        }
-                    }
+                    } else legalMoves.add(new PawnAttackMove(
+                            board, this, attackCoordinate, pieceOnCandidate
+                    ));
+                }
+            } else {
+                //The en passant Pawn stands beside this Pawn, just behind the attacked Tile.
+                final Pawn enPassantPawn = board.getEnPassantPawn();
+                if(enPassantPawn != null && enPassantPawn.getPiecePosition() == attackCoordinate - forward &&
+                        this.pieceAlliance != enPassantPawn.getPieceAlliance()) {
+                    legalMoves.add(new PawnEnPassantAttackMove(
+                            board, this, attackCoordinate, enPassantPawn
+                    ));
                 }
             }
         }
@@ -160,4 +130,21 @@ public final class Pawn extends Piece {
                 new PromotionChooser(Table.INSTANCE.getFrame(), this).getPiece();
     }
 
+    /**
+     * A method to instantiate a new piece of a known {@code PieceType} in the case of
+     * pawn promotion.
+     *
+     * @param promotionType the {@code PieceType} to promote to
+     * @return a default {@code Piece} of the given type
+     */
+    public Piece getPromotionPiece(final PieceType promotionType){
+        switch(promotionType){
+            case KNIGHT: return Knight.defaultInstance(this.piecePosition, this.pieceAlliance);
+            case BISHOP: return Bishop.defaultInstance(this.piecePosition, this.pieceAlliance);
+            case ROOK: return Rook.defaultInstance(this.piecePosition, this.pieceAlliance);
+            case QUEEN: return Queen.defaultInstance(this.piecePosition, this.pieceAlliance);
+            default: throw new IllegalArgumentException("Invalid promotion: " + promotionType);
+        }
+    }
+
 }
@@ -1,8 +1,13 @@
 package Engine.Pieces;
 import java.util.*;
 
+import Engine.Board.BitBoard;
 import Engine.Board.Board;
 import Engine.Board.Move;
+import Engine.Board.Move.EliteMove;
+import Engine.Board.Move.EliteAttackMove;
+import Engine.Board.Utility;
+import Engine.Board.Zobrist;
 
 /**
  * Piece
@@ -41,12 +46,6 @@ public abstract class Piece {
 	 */
 	private final int cachedHashCode;
 
-	/*
-	 * A static cache for the Zobrist hash codes of each type of piece on
-	 * each tile of the chess board.
-	 */
-	private static final long[][] ZOBRIST_HASH_CACHE;
-
 	/**
 	 * A {@code ShowcasePiece} with a NULL {@code PieceType}.
 	 */
@@ -54,10 +53,92 @@ public abstract class Piece {
 
 	/** Static initialization block */
 	static {
-		ZOBRIST_HASH_CACHE = initZobristHashCache();
 		NULL_PIECE = showcase(PieceType.NULL, -1, null);
 	}
 
+	/**
+	 * The number of distinct instances of each concrete {@code Piece}: one for
+	 * each position, {@code Alliance} and value of {@code isFirstMove}. Since a
+	 * {@code Piece} is immutable, each concrete class creates all of its instances
+	 * once and shares them between every {@code Board}.
+	 */
+	protected static final int NUMBER_OF_INSTANCES = 4 * Utility.NUMBER_OF_TILES;
+
+	/**
+	 * A constructor reference for a concrete {@code Piece}.
+	 *
+	 * @param <P> the concrete {@code Piece} class
+	 */
+	protected interface PieceFactory<P extends Piece> {
+		P instantiate(int piecePosition, Alliance pieceAlliance, boolean isFirstMove);
+	}
+
+	/**
+	 * A method to map a position, {@code Alliance} and value of {@code isFirstMove}
+	 * to the index of the matching instance in an instance cache.
+	 *
+	 * @param piecePosition the position of the {@code Piece}
+	 * @param pieceAlliance the {@code Alliance} of the {@code Piece}
+	 * @param isFirstMove whether or not the {@code Piece} has been moved
+	 * @return the index of the instance
+	 */
+	protected static int instanceIndex(final int piecePosition,
+									   final Alliance pieceAlliance,
+									   final boolean isFirstMove){
+		return piecePosition + (pieceAlliance.isWhite()? 0: Utility.NUMBER_OF_TILES) +
+				(isFirstMove? 2 * Utility.NUMBER_OF_TILES: 0);
+	}
+
+	/**
+	 * A method to fill an instance cache with every possible instance of a
+	 * concrete {@code Piece}.
+	 *
+	 * @param instances an empty array of length {@code NUMBER_OF_INSTANCES}
+	 * @param factory the constructor of the concrete {@code Piece}
+	 * @param <P> the concrete {@code Piece} class
+	 * @return the filled array
+	 */
+	protected static <P extends Piece> P[] createInstances(final P[] instances,
+														   final PieceFactory<P> factory){
+		for(final Alliance alliance: Alliance.values()){
+			for(int i = 0; i < Utility.NUMBER_OF_TILES; i++){
+				instances[instanceIndex(i, alliance, true)] = factory.instantiate(i, alliance, true);
+				instances[instanceIndex(i, alliance, false)] = factory.instantiate(i, alliance, false);
+			}
+		}
+		return instances;
+	}
+
+	/**
+	 * A factory method to return the shared instance of a {@code Piece}.
+	 *
+	 * @param pieceType the {@code PieceType}, which must not be NULL
+	 * @param piecePosition the position of the {@code Piece}
+	 * @param pieceAlliance the {@code Alliance} of the {@code Piece}
+	 * @param isFirstMove whether or not the {@code Piece} has been moved
+	 * @return the shared instance
+	 */
+	public static Piece instance(final PieceType pieceType,
+								 final int piecePosition,
+								 final Alliance pieceAlliance,
+								 final boolean isFirstMove){
+		switch(pieceType){
+			case PAWN: return isFirstMove? Pawn.defaultInstance(piecePosition, pieceAlliance):
+					Pawn.movedInstance(piecePosition, pieceAlliance);
+			case KNIGHT: return isFirstMove? Knight.defaultInstance(piecePosition, pieceAlliance):
+					Knight.movedInstance(piecePosition, pieceAlliance);
+			case BISHOP: return isFirstMove? Bishop.defaultInstance(piecePosition, pieceAlliance):
+					Bishop.movedInstance(piecePosition, pieceAlliance);
+			case ROOK: return isFirstMove? Rook.defaultInstance(piecePosition, pieceAlliance):
+					Rook.movedInstance(piecePosition, pieceAlliance);
+			case QUEEN: return isFirstMove? Queen.defaultInstance(piecePosition, pieceAlliance):
+					Queen.movedInstance(piecePosition, pieceAlliance);
+			case KING: return isFirstMove? King.defaultInstance(piecePosition, pieceAlliance):
+					King.movedInstance(piecePosition, pieceAlliance);
+			default: throw new IllegalArgumentException("No instance of PieceType " + pieceType);
+		}
+	}
+
 	/**
 	 * A public constructor for a {@code Piece}.
 	 *
@@ -88,26 +169,13 @@ public abstract class Piece {
 		return result;
 	}
 
-	/*
-	 * A method to initialize a Zobrist hash code cache using an under-approximation
-	 * of Long.MAX_VALUE as an upper limit.
-	 */
-	private static long[][] initZobristHashCache() {
-		final long[][] hashes = new long[12][64];
-		final Random rgen = new Random();
-		for(long[] h: hashes) for(int i = 0; i < h.length; i++)
-			h[i] = ((((long)rgen.nextInt(Integer.MAX_VALUE) * (long)rgen.nextInt(Integer.MAX_VALUE)) << 1) +
-					(long) rgen.nextInt(Integer.MAX_VALUE));
-		return hashes;
-	}
-
 	/**
 	 * A method to produce the Zobrist hash code for the {@code Piece}.
 	 *
 	 * @return the Zobrist hash code for the {@code Piece}
 	 */
 	public long zobristHash() {
-		return ZOBRIST_HASH_CACHE[this.pieceType.ordinal() + (this.pieceAlliance.isWhite()? 0: 6)][this.piecePosition];
+		return zobristHash(this.piecePosition);
 	}
 
 	/**
@@ -117,7 +185,7 @@ public abstract class Piece {
 	 * @return the Zobrist hash code for the {@code Piece}
 	 */
 	public long zobristHash(final int piecePosition) {
-		return ZOBRIST_HASH_CACHE[this.pieceType.ordinal() + (this.pieceAlliance.isWhite()? 0: 6)][piecePosition];
+		return Zobrist.piece(BitBoard.pieceIndex(this.pieceType, this.pieceAlliance), piecePosition);
 	}
 
 	/**
@@ -271,6 +339,30 @@ public abstract class Piece {
 	 */
 	public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+	/**
+	 * A method to turn an attack set into the passive and attack {@code EliteMove}s of
+	 * the {@code Piece}. Coordinates occupied by friendly {@code Piece}s are skipped.
+	 *
+	 * @param board the current {@code Board}
+	 * @param attacks the coordinates attacked by the {@code Piece} as a bitboard
+	 * @return a {@code Collection} of the {@code Piece}'s legal moves
+	 */
+	protected final Collection<Move> calculateEliteMoves(final Board board, final long attacks){
+		long destinations = attacks & ~board.getOccupancy(this.pieceAlliance);
+		final List<Move> legalMoves = new ArrayList<>(BitBoard.count(destinations));
+		while(destinations != BitBoard.EMPTY){
+			final int candidateCoordinate = BitBoard.firstSquare(destinations);
+			final Piece pieceAtDestination = board.getPiece(candidateCoordinate);
+			if(pieceAtDestination == null) {
+				legalMoves.add(new EliteMove(board, this, candidateCoordinate));
+			} else {
+				legalMoves.add(new EliteAttackMove(board, this, candidateCoordinate, pieceAtDestination));
+			}
+			destinations = BitBoard.withoutFirstSquare(destinations);
+		}
+		return Collections.unmodifiableCollection(legalMoves);
+	}
+
 	/**
 	 * A method to instantiate a new {@code Piece} at the destination coordinate
 	 * of the given {@code Move}.
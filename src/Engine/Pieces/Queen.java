@@ -1,13 +1,10 @@
 package Engine.Pieces;
 
+import Engine.Board.AttackTables;
 import Engine.Board.Board;
 import Engine.Board.Move;
-import Engine.Board.Move.EliteMove;
-import Engine.Board.Move.EliteAttackMove;
-import Engine.Board.Utility;
-import Engine.Board.Tile;
 
-import java.util.*;
+import java.util.Collection;
 
 /**
  * Queen
@@ -18,31 +15,31 @@ import java.util.*;
 public final class Queen extends Piece {
 
     /**
-     * Coordinates to determine the destination of the {Queen}'s legal moves on a one-
-     * dimensional representation of a chess board.
+     * Every possible {@code Queen}, indexed by
+     * {@link Piece#instanceIndex(int, Alliance, boolean)}.
      */
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final Queen[] INSTANCES = createInstances(new Queen[NUMBER_OF_INSTANCES], Queen::new);
 
     /**
-     * A factory method to instantiate a default {@code Queen} with isFirstMove set to true.
+     * A factory method to return the default {@code Queen} with isFirstMove set to true.
      *
      * @param piecePosition the {@code Queen}'s position
      * @param pieceAlliance the {@code Queen}'s {@code Alliance}
      * @return a default {@code Queen}
      */
     public static Queen defaultInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Queen(piecePosition, pieceAlliance, true);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, true)];
     }
 
     /**
-     * A factory method to instantiate a moved {@code Queen} with isFirstMove set to false.
+     * A factory method to return the moved {@code Queen} with isFirstMove set to false.
      *
      * @param piecePosition the {@code Queen}'s position
      * @param pieceAlliance the {@code Queen}'s {@code Alliance}
      * @return a moved {@code Queen}
      */
     public static Queen movedInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Queen(piecePosition, pieceAlliance, false);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, false)];
     }
 
     /*
@@ -56,39 +53,8 @@ public final class Queen extends Piece {
      * @inheritDoc
      */
     @Override
-    public Collection<Move> calculateLegalMoves(Board board) {
-        boolean isAtBoundary = false;
-        final List<Move> legalMoves = new ArrayList<>();
-        for(final int candidateOffset: CANDIDATE_MOVE_VECTOR_COORDINATES){
-            int candidateCoordinate = this.piecePosition;
-            if(!isFirstColumnExclusion(this.piecePosition, candidateOffset) &&
-               !isEighthColumnExclusion(this.piecePosition, candidateOffset)) {
-                isAtBoundary = false;
-                while (Utility.isValidTileCoordinate(candidateCoordinate) && !isAtBoundary) {
-                    candidateCoordinate += candidateOffset;
-                    if (Utility.isValidTileCoordinate(candidateCoordinate)) {
-                        final Tile candidateTile = board.getTile(candidateCoordinate);
-                        if (!candidateTile.isTileOccupied()) {
-                            legalMoves.add(new EliteMove(board, this, candidateCoordinate));
-                            if(isRightLeftBoundary(candidateCoordinate, candidateOffset)){
-                                isAtBoundary = true;
-                                continue;
-                            }
-                        } else {
-                            final Piece pieceAtDestination = candidateTile.getPiece();
-                            final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                            if (this.pieceAlliance != pieceAlliance) {
-                                legalMoves.add(new EliteAttackMove(
-                                        board, this, candidateCoordinate, pieceAtDestination
-                                ));
-                            }
-                            isAtBoundary = true;
-                        }
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableCollection(legalMoves);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        return calculateEliteMoves(board, AttackTables.queenAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     /**
@@ -99,27 +65,4 @@ public final class Queen extends Piece {
         return movedInstance(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
-    /*
-     * Boolean methods to enhance the readability of legal move logic.
-     * Note: magic numbers are left in to simplify the expressions.
-     * These numbers are vector coordinates that the reader can easily
-     * plot in two dimensions (8x8 grid).
-     */
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset){
-        return Utility.FIRST_COLUMN[currentPosition] &&
-                (candidateOffset == -9 || candidateOffset == -1 || candidateOffset == 7);
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset){
-        return Utility.EIGHTH_COLUMN[currentPosition] &&
-                (candidateOffset == -7 || candidateOffset == 1 || candidateOffset == 9);
-    }
-
-    private static boolean isRightLeftBoundary(final int candidateCoordinate, final int candidateOffset){
-        return (Utility.FIRST_COLUMN[candidateCoordinate]
-                || Utility.EIGHTH_COLUMN[candidateCoordinate]) &&
-                (candidateOffset == -9 || candidateOffset == -7 || candidateOffset == 7
-                || candidateOffset == 9 || candidateOffset == -1 || candidateOffset == 1);
-    }
-
 }
@@ -1,13 +1,10 @@
 package Engine.Pieces;
 
+import Engine.Board.AttackTables;
 import Engine.Board.Board;
 import Engine.Board.Move;
-import Engine.Board.Move.EliteMove;
-import Engine.Board.Move.EliteAttackMove;
-import Engine.Board.Utility;
-import Engine.Board.Tile;
 
-import java.util.*;
+import java.util.Collection;
 
 /**
  * Rook
@@ -18,31 +15,31 @@ import java.util.*;
 public final class Rook extends Piece{
 
     /**
-     * Coordinates to determine the destination of the {Queen}'s legal moves on a one-
-     * dimensional representation of a chess board.
+     * Every possible {@code Rook}, indexed by
+     * {@link Piece#instanceIndex(int, Alliance, boolean)}.
      */
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-8, -1, 1, 8};
+    private static final Rook[] INSTANCES = createInstances(new Rook[NUMBER_OF_INSTANCES], Rook::new);
 
     /**
-     * A factory method to instantiate a default {@code Rook} with isFirstMove set to true.
+     * A factory method to return the default {@code Rook} with isFirstMove set to true.
      *
      * @param piecePosition the {@code Rook}'s position
      * @param pieceAlliance the {@code Rook}'s {@code Alliance}
      * @return a default {@code Rook}
      */
     public static Rook defaultInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Rook(piecePosition, pieceAlliance, true);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, true)];
     }
 
     /**
-     * A factory method to instantiate a moved {@code Rook} with isFirstMove set to false.
+     * A factory method to return the moved {@code Rook} with isFirstMove set to false.
      *
      * @param piecePosition the {@code Rook}'s position
      * @param pieceAlliance the {@code Rook}'s {@code Alliance}
      * @return a moved {@code Rook}
      */
     public static Rook movedInstance(final int piecePosition, final Alliance pieceAlliance) {
-        return new Rook(piecePosition, pieceAlliance, false);
+        return INSTANCES[instanceIndex(piecePosition, pieceAlliance, false)];
     }
 
     /*
@@ -58,40 +55,8 @@ public final class Rook extends Piece{
      * @inheritDoc
      */
     @Override
-    public Collection<Move> calculateLegalMoves(Board board) {
-        boolean isAtBoundary = false;
-        final List<Move> legalMoves = new ArrayList<>();
-        for(final int candidateOffset: CANDIDATE_MOVE_VECTOR_COORDINATES){
-            int candidateCoordinate = this.piecePosition;
-            if(!isFirstColumnExclusion(this.piecePosition, candidateOffset) &&
-               !isEighthColumnExclusion(this.piecePosition, candidateOffset)) {
-                //System.out.println("Hi!");
-                isAtBoundary = false;
-                while (Utility.isValidTileCoordinate(candidateCoordinate) && !isAtBoundary) {
-                    candidateCoordinate += candidateOffset;
-                    if (Utility.isValidTileCoordinate(candidateCoordinate)) {
-                        final Tile candidateTile = board.getTile(candidateCoordinate);
-                        if (!candidateTile.isTileOccupied()) {
-                            legalMoves.add(new EliteMove(board, this, candidateCoordinate));
-                            if(isRightLeftBoundary(candidateCoordinate, candidateOffset)){
-                                isAtBoundary = true;
-                                continue;
-                            }
-                        } else {
-                            final Piece pieceAtDestination = candidateTile.getPiece();
-                            final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                            if (this.pieceAlliance != pieceAlliance) {
-                                legalMoves.add(new EliteAttackMove(
-                                        board, this, candidateCoordinate, pieceAtDestination
-                                ));
-                            }
-                            isAtBoundary = true;
-                        }
-                    }
-                }
-            }
-        }
-        return Collections.unmodifiableCollection(legalMoves);
+    public Collection<Move> calculateLegalMoves(final Board board) {
+        return calculateEliteMoves(board, AttackTables.rookAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     /**
@@ -102,23 +67,4 @@ public final class Rook extends Piece{
         return movedInstance(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
     }
 
-    /*
-     * Boolean methods to enhance the readability of legal move logic.
-     * Note: magic numbers are left in to simplify the expressions.
-     * These numbers are vector coordinates that the reader can easily
-     * plot in two dimensions (8x8 grid).
-     */
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset){
-        return Utility.FIRST_COLUMN[currentPosition] && candidateOffset == -1;
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset){
-        return Utility.EIGHTH_COLUMN[currentPosition] && candidateOffset == 1;
-    }
-
-    private boolean isRightLeftBoundary(int candidateCoordinate, int candidateOffset) {
-        return (Utility.FIRST_COLUMN[candidateCoordinate] || Utility.EIGHTH_COLUMN[candidateCoordinate])
-                && (candidateOffset == -1 || candidateOffset == 1);
-    }
-
 }
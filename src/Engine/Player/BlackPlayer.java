@@ -20,20 +20,18 @@ import java.util.*;
 public final class BlackPlayer extends Player {
 
     /**
-     * A public constructor for a {@code Black PLayer}.
+     * A public constructor for a {@code Black Player}.
      *
      * @param board the current {@code Board}
-     * @param blackStdLegalMoves all legal {@code Moves} pertaining to the black {@code Alliance}
-     * @param whiteStdLegalMoves all legal {@code Moves} pertaining to the white {@code Alliance}
      * @param isCastled whether or not the {@code Player} has committed to a castling move
+     * @param hasPromoted whether or not the {@code Player} has promoted a pawn
+     * @param type the type of the {@code Player}
      */
     public BlackPlayer(final Board board,
-                       final Collection<Move> blackStdLegalMoves,
-                       final Collection<Move> whiteStdLegalMoves,
                        final boolean isCastled,
                        final boolean hasPromoted,
-                       PlayerType type) {
-        super(board, blackStdLegalMoves, whiteStdLegalMoves, isCastled, hasPromoted, type);
+                       final PlayerType type) {
+        super(board, isCastled, hasPromoted, type);
     }
 
     /**
@@ -70,9 +68,9 @@ public final class BlackPlayer extends Player {
         final List<Move> kingCastles = new ArrayList<>();
         if(playerKing.getPiecePosition() == 4 && !isInCheck() && playerKing.isFirstMove()){
             //Black player's king side Castle.
-            if(board.getTile(5).getPiece() == null
-               && board.getTile(6).getPiece() == null){
-                final Piece rook = board.getTile(7).getPiece();
+            if(board.getPiece(5) == null
+               && board.getPiece(6) == null){
+                final Piece rook = board.getPiece(7);
                 if(rook != null){
                     if(Player.calculateAttacksOnTile(5, opponentLegals).isEmpty()
                        && Player.calculateAttacksOnTile(6, opponentLegals).isEmpty()
@@ -85,10 +83,10 @@ public final class BlackPlayer extends Player {
                 }
             }
             //Black player's queen side Castle
-            if(board.getTile(3).getPiece() == null
-               && board.getTile(2).getPiece() == null
-               && board.getTile(1).getPiece() == null){
-                final Piece rook = board.getTile(0).getPiece();
+            if(board.getPiece(3) == null
+               && board.getPiece(2) == null
+               && board.getPiece(1) == null){
+                final Piece rook = board.getPiece(0);
                 if(rook != null){
                     if(Player.calculateAttacksOnTile(3, opponentLegals).isEmpty()
                        && Player.calculateAttacksOnTile(2, opponentLegals).isEmpty()
@@ -105,14 +103,14 @@ public final class BlackPlayer extends Player {
     }
 
     public boolean isKingSideCastleCapable(){
-        Piece piece = board.getTile(7).getPiece();
+        Piece piece = board.getPiece(7);
         if(piece != null && playerKing.isFirstMove() && piece.getPieceType().isRook())
             return piece.isFirstMove();
         return false;
     }
 
     public boolean isQueenSideCastleCapable(){
-        Piece piece = board.getTile(0).getPiece();
+        Piece piece = board.getPiece(0);
         if(piece != null && playerKing.isFirstMove() && piece.getPieceType().isRook())
             return piece.isFirstMove();
         return false;
@@ -1,11 +1,13 @@
 package Engine.Player;
 
+import Engine.Board.BitBoard;
 import Engine.Board.Board;
 import Engine.Board.Utility;
 import Engine.Board.Move;
 import Engine.Pieces.Alliance;
 import Engine.Pieces.King;
 import Engine.Pieces.Piece;
+import Engine.Pieces.Piece.PieceType;
 
 import java.util.*;
 
@@ -25,6 +27,14 @@ import java.util.*;
  */
 public abstract class Player {
 
+    /**
+     * Every {@code PieceType} that may occupy a {@code Board}.
+     */
+    private static final PieceType[] PIECE_TYPES = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+            PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
     /**
      * The current {@code Board}.
      */
@@ -36,14 +46,18 @@ public abstract class Player {
     protected final King playerKing;
 
     /**
-     * The {@code Player}'s legal {@code Move}s.
+     * The {@code Player}'s legal {@code Move}s, calculated upon first request.
+     * Like every value memoized by a {@code Player}, it is immutable and
+     * published through a volatile field, since a {@code Board} and its
+     * {@code Player}s are read by several threads at once.
      */
-    protected final Collection<Move> legalMoves;
+    private volatile Collection<Move> legalMoves;
 
     /**
-     * A variable to indicate whether or not the {@code Player} is in check.
+     * A variable to indicate whether or not the {@code Player} is in check,
+     * calculated upon first request.
      */
-    private final boolean isInCheck;
+    private volatile Boolean isInCheck;
 
     /**
      * A variable to indicate whether or not the {@code Player} has promoted a pawn.
@@ -56,9 +70,9 @@ public abstract class Player {
     private final boolean isCastled;
 
     /**
-     * The {@code Player}'s castles.
+     * The {@code Player}'s castles, calculated upon first request.
      */
-    private final Collection<Move> castles;
+    private volatile Collection<Move> castles;
 
     /**
      * The type of the {@code Player} (User or Computer).
@@ -66,28 +80,23 @@ public abstract class Player {
     private final PlayerType playerType;
 
     /**
-     * A protected constructor for a {@code Player}.
+     * A protected constructor for a {@code Player}. The {@code Player}'s legal
+     * moves, check and castles are not calculated here. Each is calculated and
+     * memoized upon first request.
      *
      * @param board the current {@code Board}
-     * @param legalMoves the {@code Player}'s legal moves
-     * @param opponentsLegalMoves the opponent {@code Player}'s legal moves
+     * @param isCastled whether or not the {@code Player} has committed to a castling move
+     * @param hasPromoted whether or not the {@code Player} has promoted a pawn
+     * @param playerType the type of the {@code Player}
      */
     protected Player(final Board board,
-                     final Collection<Move> legalMoves,
-                     final Collection<Move> opponentsLegalMoves,
                      final boolean isCastled,
                      final boolean hasPromoted,
                      final PlayerType playerType){
         this.board = board;
         this.playerKing = establishKing();
-        this.isInCheck = !Player.calculateAttacksOnTile(
-                this.playerKing.getPiecePosition(), opponentsLegalMoves
-        ).isEmpty();
         this.isCastled = isCastled;
         this.hasPromoted = hasPromoted;
-        this.castles = this.calculateKingCastles(legalMoves, opponentsLegalMoves);
-        this.legalMoves = this.castles.isEmpty()?
-                legalMoves: Utility.concat(castles, legalMoves);
         this.playerType = playerType;
     }
 
@@ -115,7 +124,14 @@ public abstract class Player {
      * @return the {@code Player}'s full legal moves
      */
     public Collection<Move> getLegalMoves(){
-        return this.legalMoves;
+        Collection<Move> legalMoves = this.legalMoves;
+        if(legalMoves == null) {
+            final Collection<Move> standardLegalMoves = this.board.getStandardLegalMoves(getAlliance());
+            final Collection<Move> castles = getCastles();
+            this.legalMoves = legalMoves = castles.isEmpty()?
+                    standardLegalMoves: Utility.concat(castles, standardLegalMoves);
+        }
+        return legalMoves;
     }
 
     /**
@@ -124,7 +140,12 @@ public abstract class Player {
      * @return the {@code Player}'s castle {@code Moves}
      */
     public Collection<Move> getCastles() {
-        return this.castles;
+        Collection<Move> castles = this.castles;
+        if(castles == null) this.castles = castles = calculateKingCastles(
+                this.board.getStandardLegalMoves(getAlliance()),
+                this.board.getStandardLegalMoves(getOpponent().getAlliance())
+        );
+        return castles;
     }
 
     /**
@@ -152,10 +173,9 @@ public abstract class Player {
      * @return the {@code Player}'s {@code King}
      */
     private King establishKing() {
-        for(final Piece piece: getActivePieces()){
-            if(piece.getPieceType().isKing()){
-                return (King) piece;
-            }
+        final long kingBoard = this.board.getPieceBoard(PieceType.KING, getAlliance());
+        if(kingBoard != BitBoard.EMPTY){
+            return (King) this.board.getPiece(BitBoard.firstSquare(kingBoard));
         }
         throw new RuntimeException("Invalid Board-- Missing King.");
     }
@@ -168,7 +188,7 @@ public abstract class Player {
      * @return whether or not the given move is legal
      */
     public boolean isMoveLegal(final Move move){
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     /**
@@ -177,7 +197,12 @@ public abstract class Player {
      * @return whether or not the {@code Player} is in check
      */
     public boolean isInCheck(){
-        return this.isInCheck;
+        Boolean isInCheck = this.isInCheck;
+        if(isInCheck == null) this.isInCheck = isInCheck = !Player.calculateAttacksOnTile(
+                this.playerKing.getPiecePosition(),
+                this.board.getStandardLegalMoves(getOpponent().getAlliance())
+        ).isEmpty();
+        return isInCheck;
     }
 
     /**
@@ -189,25 +214,20 @@ public abstract class Player {
      * @see Player#hasEscapeMoves()
      */
     public boolean isInCheckMate(final boolean hasEscapeMoves){
-        return this.isInCheck && !hasEscapeMoves;
+        return isInCheck() && !hasEscapeMoves;
     }
 
     /**
      * A boolean method to determine whether or not the {@code Player} has any escape
-     * moves. This method makes each {@code Move} in the {@code Player}'s legal
-     * {@code Move}s and checks the {@code MoveStatus} of the corresponding
-     * {@code MoveTransition}. If any status is {@code DONE}, then the Player is
-     * unable to escape.
+     * moves, that is, any {@code Move} which does not leave the {@code Player} in check.
+     * The {@code Board} answers this from its strictly legal move generator, so no
+     * {@code Move} is executed.
      *
      * @return whether or not the {@code Player} can escape from check
+     * @see Board#hasLegalMoves(Alliance)
      */
     public boolean hasEscapeMoves() {
-        for(final Move move: this.legalMoves){
-            if(move.isAttack() && move.getAttackedPiece().getPieceType().isKing()) continue;
-            final MoveTransition transition = makeMove(move, true);
-            if(transition.getMoveStatus().isDone()) return true;
-        }
-        return false;
+        return this.board.hasLegalMoves(getAlliance());
     }
 
     /**
@@ -217,8 +237,9 @@ public abstract class Player {
      */
     public int getPieceValueScore() {
         int pieceValueScore = 0;
-        for(final Piece piece: getActivePieces()){
-            pieceValueScore += piece.getPieceValue();
+        for(final PieceType pieceType: PIECE_TYPES){
+            pieceValueScore += pieceType.getPieceValue() *
+                    BitBoard.count(this.board.getPieceBoard(pieceType, getAlliance()));
         }
         return pieceValueScore;
     }
@@ -231,7 +252,7 @@ public abstract class Player {
      * @return whether or not the {@code Player} is in stalemate
      */
     public boolean isInStaleMate(final boolean hasEscapeMoves){
-        return !this.isInCheck && !hasEscapeMoves;
+        return !isInCheck() && !hasEscapeMoves;
     }
 
     /**
@@ -288,9 +309,9 @@ public abstract class Player {
     private InsufficientPiecesTest initTest(){
         InsufficientPiecesTest test = new InsufficientPiecesTest();
         for(Piece p: getActivePieces()){
-            if(p.getPieceType() == Piece.PieceType.BISHOP)
+            if(p.getPieceType() == PieceType.BISHOP)
                 test.hasBishop = true;
-            if(p.getPieceType() == Piece.PieceType.KNIGHT){
+            if(p.getPieceType() == PieceType.KNIGHT){
                 if(test.hasKnight)
                     test.hasTwoKnights = true;
                 test.hasKnight = true;
@@ -303,7 +324,9 @@ public abstract class Player {
      * A method which allows the {@code Player} to execute a {@code Move} on the chess board if
      * and only if that {@code Move} is legal and does not place the {@code Player} in check. if
      * the move is illegal or results in check, the previous board will be passed to the {@code
-     * MoveTransition} and the {@code Player} will be allowed to try again.
+     * MoveTransition} and the {@code Player} will be allowed to try again. Whether or not the
+     * {@code Move} results in check is decided by the {@code Board} before the {@code Move} is
+     * executed, so only legal {@code Move}s ever build a new {@code Board}.
      *
      * @param move the move to be made
      * @return a {@code MoveTransition}
@@ -311,14 +334,9 @@ public abstract class Player {
     public MoveTransition makeMove(final Move move, final boolean isAI){
         if(!isMoveLegal(move))
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
-        final Board transitionBoard = move.execute(isAI);
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(
-                transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves()
-        );
-        if(!kingAttacks.isEmpty())
+        if(!this.board.isLegalMove(move))
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(isAI), move, MoveStatus.DONE);
     }
 
     /**
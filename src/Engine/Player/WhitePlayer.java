@@ -20,20 +20,18 @@ import java.util.*;
 public final class WhitePlayer extends Player {
 
     /**
-     * A public constructor for a {@code White PLayer}.
+     * A public constructor for a {@code White Player}.
      *
      * @param board the current {@code Board}
-     * @param whiteStdLegalMoves all legal {@code Moves} pertaining to the white {@code Alliance}
-     * @param blackStdLegalMoves all legal {@code Moves} pertaining to the black {@code Alliance}
      * @param isCastled whether or not the {@code Player} has committed to a castling move
+     * @param hasPromoted whether or not the {@code Player} has promoted a pawn
+     * @param type the type of the {@code Player}
      */
     public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStdLegalMoves,
-                       final Collection<Move> blackStdLegalMoves,
                        final boolean isCastled,
                        final boolean hasPromoted,
                        final PlayerType type) {
-        super(board, whiteStdLegalMoves, blackStdLegalMoves, isCastled, hasPromoted, type);
+        super(board, isCastled, hasPromoted, type);
     }
 
     /**
@@ -70,9 +68,9 @@ public final class WhitePlayer extends Player {
         final List<Move> kingCastles = new ArrayList<>();
         if(playerKing.getPiecePosition() == 60 && !isInCheck() && playerKing.isFirstMove()){
             //White player's king side Castle.
-            if(board.getTile(61).getPiece() == null
-               && board.getTile(62).getPiece() == null){
-                final Piece rook = board.getTile(63).getPiece();
+            if(board.getPiece(61) == null
+               && board.getPiece(62) == null){
+                final Piece rook = board.getPiece(63);
                 if(rook != null){
                     if(Player.calculateAttacksOnTile(61, opponentLegals).isEmpty()
                     && Player.calculateAttacksOnTile(62, opponentLegals).isEmpty()
@@ -85,10 +83,10 @@ public final class WhitePlayer extends Player {
                 }
             }
             //White player's queen side Castle
-            if(board.getTile(59).getPiece() == null
-               && board.getTile(58).getPiece() == null
-               && board.getTile(57).getPiece() == null){
-                final Piece rook = board.getTile(56).getPiece();
+            if(board.getPiece(59) == null
+               && board.getPiece(58) == null
+               && board.getPiece(57) == null){
+                final Piece rook = board.getPiece(56);
                 if(rook != null){
                     if(Player.calculateAttacksOnTile(59, opponentLegals).isEmpty()
                         && Player.calculateAttacksOnTile(58, opponentLegals).isEmpty()
@@ -105,14 +103,14 @@ public final class WhitePlayer extends Player {
     }
 
     public boolean isKingSideCastleCapable(){
-        Piece piece = board.getTile(63).getPiece();
+        Piece piece = board.getPiece(63);
         if(piece != null && playerKing.isFirstMove() && piece.getPieceType().isRook())
             return piece.isFirstMove();
         return false;
     }
 
     public boolean isQueenSideCastleCapable(){
-        Piece piece = board.getTile(56).getPiece();
+        Piece piece = board.getPiece(56);
         if(piece != null && playerKing.isFirstMove() && piece.getPieceType().isRook())
             return piece.isFirstMove();
         return false;
@@ -1,6 +1,9 @@
 package GUI;
+import Engine.Board.Board;
 import Engine.Board.Move;
 import Engine.Board.Move.MoveFactory;
+import Engine.Board.RepetitionHistory;
+import Engine.Pieces.Piece.PieceType;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -8,35 +11,90 @@ import java.util.List;
 public class MoveLog {
 
     private final List<Move> moves;
+    private final RepetitionHistory positions;
 
     public MoveLog(){
         this.moves = new ArrayList<>();
+        this.positions = new RepetitionHistory();
+    }
+
+    /**
+     * A public constructor for a copy of a {@code MoveLog}, which may be
+     * extended without changing the original.
+     *
+     * @param log the {@code MoveLog} to copy
+     */
+    public MoveLog(final MoveLog log){
+        this.moves = new ArrayList<>(log.moves);
+        this.positions = new RepetitionHistory(log.positions);
     }
 
     public List<Move> getMoves() {
         return this.moves;
     }
 
+    /**
+     * Exposes the Zobrist keys of the positions of the game, for detecting
+     * repetitions.
+     *
+     * @return the {@code RepetitionHistory} of the game
+     */
+    public RepetitionHistory getPositions() {
+        return this.positions;
+    }
+
     public void addMove(final Move move){
         this.moves.add(MoveFactory.showcase(move));
     }
 
+    /**
+     * A method to log a {@code Move} together with the position it reached.
+     * The position before the first logged {@code Move} is recorded too.
+     *
+     * @param move the {@code Move} made
+     * @param board the {@code Board} after the {@code Move}
+     */
+    public void addMove(final Move move, final Board board){
+        final Board previous = move.getBoard();
+        if(this.positions.size() == 0) this.positions.push(previous.zobristHash(), true);
+        this.positions.push(board.zobristHash(), move.isAttack() ||
+                move.getMovedPiece().getPieceType() == PieceType.PAWN ||
+                previous.getCastlingRights() != board.getCastlingRights());
+        addMove(move);
+    }
+
     public int size(){
         return this.moves.size();
     }
 
     public void clear(){
         this.moves.clear();
+        this.positions.clear();
     }
 
+    /**
+     * A method to remove a logged {@code Move}. Taking back the last
+     * {@code Move} pops the position it reached, and with it the record of
+     * whether it was irreversible. Removing any earlier {@code Move} leaves
+     * positions which no longer follow from the moves, so they are cleared
+     * rather than kept out of step with them.
+     *
+     * @param index the index of the {@code Move}
+     * @return the {@code Move} removed
+     */
     public Move removeMove(final int index){
-        return this.moves.remove(index);
+        final boolean isLast = index == this.moves.size() - 1;
+        final Move move = this.moves.remove(index);
+        if(this.positions.size() == this.moves.size() + 2 && isLast) this.positions.pop();
+        else this.positions.clear();
+        return move;
     }
 
     public boolean removeMove(final Move move){
-        return this.moves.remove(move);
+        final int index = this.moves.indexOf(move);
+        if(index < 0) return false;
+        removeMove(index);
+        return true;
     }
 
 }
-
-
@@ -3,6 +3,10 @@ package GUI;
 import Engine.Board.*;
 import Engine.Board.Move.MoveFactory;
 import Opponent.Minimax;
+import Opponent.PrincipalVariation;
+import Opponent.SearchControl;
+import Opponent.SearchListener;
+import Opponent.SearchStats;
 import Engine.Pieces.King;
 import Engine.Player.MoveTransition;
 import Engine.Pieces.Piece;
@@ -21,6 +25,7 @@ import java.util.*;
 import java.util.List;
 import java.io.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
 import static javax.swing.SwingUtilities.isRightMouseButton;
@@ -51,10 +56,14 @@ public class Table extends Observable {
     private BoardDirection boardDirection;
     private boolean highLightLegalMoves;
     private Minimax opponent;
+    private final SearchListener searchReporter;
     private Move computerMove;
     private final TableGameWatcher watcher;
     private final Runnable computerUpdateAction;
     private OpponentThinkTank thinkTank;
+    private Future<Move> ponderSearch;
+    private SearchControl ponderControl;
+    private long ponderKey;
 
     private static final Color LIGHT_TILE_COLOR;
     private static final Color DARK_TILE_COLOR;
@@ -123,7 +132,9 @@ public class Table extends Observable {
         this.gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
         this.highLightLegalMoves = false;
         this.gameFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-        this.opponent = new Minimax(setup.getSliderValue() << 1, setup.getSliderValue() << 1, 12);
+        this.opponent = new Minimax(setup.getSliderValue() << 1, setup.getSliderValue() << 1);
+        this.searchReporter = new SearchReporter();
+        this.opponent.addSearchListener(searchReporter);
         this.gameFrame.setResizable(false);
         this.gameFrame.setLocationRelativeTo(null);
         this.gameFrame.setVisible(true);
@@ -263,6 +274,8 @@ public class Table extends Observable {
                                 "Are you sure?"
                 );
                 if(option == JOptionPane.YES_OPTION) {
+                    stopPondering();
+                    stopThinking();
                     if(config.isComputer())
                         gameBoard = Board.generateStandardBoard(PlayerType.COMPUTER, PlayerType.COMPUTER);
                     else gameBoard = Board.generateStandardBoard(PlayerType.USER, PlayerType.COMPUTER);
@@ -292,14 +305,11 @@ public class Table extends Observable {
                 }
                 ComputerVComputer.setState(false);
                 HumanVComputer.setState(true);
+                stopPondering();
+                stopThinking();
                 config = PlayerType.USER;
                 gameBoard = Board.generateStandardBoard(PlayerType.USER, PlayerType.COMPUTER);
                 refreshGUI();
-                try {
-                    thinkTank.cancel(true);
-                } catch(Exception ex){
-                    System.out.println("Stopped Thinking.");
-                }
             }
         });
         setupMenu.add(HumanVComputer);
@@ -310,6 +320,8 @@ public class Table extends Observable {
                     ComputerVComputer.setState(true);
                     return;
                 }
+                stopPondering();
+                stopThinking();
                 config = PlayerType.COMPUTER;
                 gameBoard = Board.generateStandardBoard(PlayerType.COMPUTER, PlayerType.COMPUTER);
                 refreshGUI();
@@ -324,7 +336,9 @@ public class Table extends Observable {
         slider.addChangeListener(new ChangeListener() {
             @Override
             public void stateChanged(ChangeEvent e) {
-                opponent = new Minimax(slider.getValue() << 1, slider.getValue() << 1, 12);
+                stopPondering();
+                opponent = new Minimax(slider.getValue() << 1, slider.getValue() << 1);
+                opponent.addSearchListener(searchReporter);
             }
         });
         changeDifficulty.add(slider);
@@ -339,13 +353,16 @@ public class Table extends Observable {
         if(fileChooser.showOpenDialog(gameFrame) != JFileChooser.CANCEL_OPTION) {
             try {
                 Scanner s = new Scanner(fileChooser.getSelectedFile());
+                stopPondering();
+                stopThinking();
                 long start = System.currentTimeMillis();
                 gameBoard = Utility.parseFEN(s.nextLine());
                 System.out.println("FEN time: " + (System.currentTimeMillis() - start));
                 boardPanel.drawBoard(gameBoard);
-                moveLog.clear();
                 start = System.currentTimeMillis();
-                while (s.hasNext()) moveLog.addMove(MoveFactory.parseAndShowcase(s.next()));
+                final List<Move> moves = new ArrayList<>();
+                while (s.hasNext()) moves.add(MoveFactory.parseAndShowcase(s.next()));
+                replay(moves);
                 System.out.println("Move time: " + (System.currentTimeMillis() - start));
                 gameHistoryPanel.redo(gameBoard, moveLog);
                 takenPiecesPanel.redo(moveLog);
@@ -355,6 +372,31 @@ public class Table extends Observable {
         }
     }
 
+    /*
+     * This method rebuilds the move log of a loaded game. Every game starts
+     * from the standard board, so the moves are replayed from it, logging
+     * the position each one reaches for the repetition checks. If the moves
+     * don't lead to the loaded board, they are logged without positions.
+     */
+    private void replay(final List<Move> moves){
+        moveLog.clear();
+        Board board = config.isComputer()?
+                Board.generateStandardBoard(PlayerType.COMPUTER, PlayerType.COMPUTER):
+                Board.generateStandardBoard(PlayerType.USER, PlayerType.COMPUTER);
+        for(final Move move: moves){
+            final Move legalMove = MoveFactory.produce(
+                    board, move.getCurrentCoordinate(), move.getDestinationCoordinate()
+            );
+            final MoveTransition transition = board.currentPlayer().makeMove(legalMove, false);
+            if(!transition.getMoveStatus().isDone()) break;
+            board = transition.getTransitionBoard();
+            moveLog.addMove(legalMove, board);
+        }
+        if(moveLog.size() == moves.size() && board.zobristHash() == gameBoard.zobristHash()) return;
+        moveLog.clear();
+        for(final Move move: moves) moveLog.addMove(move);
+    }
+
     private void savePGN(Board board){
         try {
             JFileChooser fileChooser = new JFileChooser();
@@ -383,19 +425,55 @@ public class Table extends Observable {
     //<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<< OBSERVER >>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>//
     //////////////////////////////////////////////////////////////////////////////
 
+    /*
+     * A listener which reports the progress of the opponent's searches, and
+     * of its pondering, to the terminal/console. The best line of each
+     * iteration is reported just before the iteration completes.
+     */
+    private static class SearchReporter implements SearchListener {
+
+        private int bestMove = PackedMove.NO_MOVE;
+
+        @Override
+        public void lineCompleted(final PrincipalVariation line) {
+            if(line.getRank() == 1) bestMove = line.getMove();
+        }
+
+        @Override
+        public void iterationCompleted(final SearchStats stats) {
+            final int iteration = stats.getIterationCount() - 1;
+            System.out.println("Depth " + stats.getIterationDepth(iteration) + ": " +
+                    PackedMove.toString(bestMove) + " in " + stats.getIterationNodes(iteration) + " nodes.");
+        }
+
+        @Override
+        public void ponderStarted(final Move reply) {
+            System.out.println("Pondering " + reply + ".");
+        }
+
+        @Override
+        public void ponderFinished(final boolean isHit) {
+            System.out.println(isHit? "Ponder hit.": "Ponder miss.");
+        }
+
+    }
+
     private static class TableGameWatcher implements Observer {
 
         @Override
         public void update(final Observable o, final Object arg) {
             final boolean hasEscapeMoves = Table.INSTANCE.gameBoard.currentPlayer().hasEscapeMoves();
+            final boolean isInPlay = !Table.INSTANCE.gameBoard.currentPlayer().isInCheckMate(hasEscapeMoves) &&
+                    !Table.INSTANCE.gameBoard.currentPlayer().isInStaleMate(hasEscapeMoves) &&
+                    !(Table.INSTANCE.gameBoard.currentPlayer().hasInsufficientMaterial() &&
+                            Table.INSTANCE.gameBoard.currentPlayer().getOpponent().hasInsufficientMaterial());
             if(arg == Table.INSTANCE.config) {
-                if (!Table.INSTANCE.gameBoard.currentPlayer().isInCheckMate(hasEscapeMoves) &&
-                        !Table.INSTANCE.gameBoard.currentPlayer().isInStaleMate(hasEscapeMoves) &&
-                        !(Table.INSTANCE.gameBoard.currentPlayer().hasInsufficientMaterial() &&
-                                Table.INSTANCE.gameBoard.currentPlayer().getOpponent().hasInsufficientMaterial())) {
-                    Table.INSTANCE.thinkTank = new OpponentThinkTank();
+                if (isInPlay) {
+                    Table.INSTANCE.thinkTank = Table.INSTANCE.newThinkTank();
                     Table.INSTANCE.thinkTank.execute();
-                }
+                } else Table.INSTANCE.stopPondering();
+            } else if(arg == PlayerType.COMPUTER && isInPlay) {
+                Table.INSTANCE.startPondering();
             }
             if (Table.INSTANCE.gameBoard.currentPlayer().isInCheckMate(hasEscapeMoves)) {
                 JOptionPane.showMessageDialog(
@@ -431,36 +509,115 @@ public class Table extends Observable {
         this.computerMove = move;
     }
 
+    /*
+     * This method starts the opponent searching on the user's time, on the
+     * board after the reply it expects to its last move.
+     */
+    private void startPondering(){
+        stopPondering();
+        final Move reply = opponent.getPonderMove(gameBoard);
+        if(reply == MoveFactory.NULL_MOVE) return;
+        final MoveTransition transition = gameBoard.currentPlayer().makeMove(reply, true);
+        if(!transition.getMoveStatus().isDone()) return;
+        final Board ponderBoard = transition.getTransitionBoard();
+        final boolean hasEscapeMoves = ponderBoard.currentPlayer().hasEscapeMoves();
+        if(ponderBoard.currentPlayer().isInCheckMate(hasEscapeMoves) ||
+                ponderBoard.currentPlayer().isInStaleMate(hasEscapeMoves)) return;
+        final MoveLog ponderLog = new MoveLog(moveLog);
+        ponderLog.addMove(reply, ponderBoard);
+        ponderKey = ponderBoard.zobristHash();
+        ponderControl = SearchControl.unlimited();
+        ponderSearch = opponent.ponder(ponderBoard, ponderLog, ponderControl);
+        searchReporter.ponderStarted(reply);
+    }
+
+    /*
+     * This method creates a think tank for the current board. If the user
+     * played the expected reply, the think tank takes over the search which
+     * pondered it, and starts its clock. Otherwise, that search is stopped,
+     * and the think tank searches afresh.
+     */
+    private OpponentThinkTank newThinkTank(){
+        if(ponderSearch != null && gameBoard.zobristHash() == ponderKey) {
+            searchReporter.ponderFinished(true);
+            ponderControl.start();
+            final OpponentThinkTank tank = new OpponentThinkTank(ponderSearch, ponderControl);
+            ponderSearch = null;
+            return tank;
+        }
+        if(ponderSearch != null) searchReporter.ponderFinished(false);
+        stopPondering();
+        return new OpponentThinkTank(null, SearchControl.unlimited());
+    }
+
+    /*
+     * This method stops the think tank, if any, and waits for its search to
+     * return. The move it returns is not played.
+     */
+    private void stopThinking(){
+        if(thinkTank == null) return;
+        thinkTank.abandon();
+        thinkTank = null;
+    }
+
+    /*
+     * This method stops the search which is pondering, if any, and waits for
+     * it to return, so that the opponent is free to search again.
+     */
+    private void stopPondering(){
+        if(ponderSearch == null) return;
+        ponderControl.stop();
+        try {
+            ponderSearch.get();
+        } catch(final InterruptedException e){
+            Thread.currentThread().interrupt();
+        } catch(final ExecutionException e){
+            e.printStackTrace();
+        }
+        ponderSearch = null;
+    }
+
     private void moveMadeUpdate(final PlayerType type){
         setChanged();
         notifyObservers(type);
     }
 
-    public static boolean isThreeFoldRepetition(final Move move, final MoveLog moveLog) {
-        boolean isRepeating = false;
-        for(int i = moveLog.size() < 14? 0: moveLog.size() - 14; i < (moveLog.size() > 0? moveLog.size() - 1: 0); i++){
-            if(moveLog.getMoves().get(i).equals(move)){
-                if(isRepeating){
-                    return true;
-                }
-                isRepeating = true;
-            }
-        }
-        return false;
+    public static boolean isThreeFoldRepetition(final MoveLog moveLog) {
+        return moveLog.getPositions().isThreefoldRepetition();
     }
 
     private static class OpponentThinkTank extends SwingWorker<Move, String> {
 
-        private OpponentThinkTank() {
+        private final Future<Move> ponderSearch;
+        private final SearchControl control;
+        private boolean isAbandoned;
+
+        private OpponentThinkTank(final Future<Move> ponderSearch, final SearchControl control) {
+            this.ponderSearch = ponderSearch;
+            this.control = control;
         }
 
         @Override
         protected Move doInBackground() throws Exception {
-            return Table.INSTANCE.opponent.execute(Table.INSTANCE.gameBoard, Table.INSTANCE.moveLog, false);
+            if(ponderSearch != null) return ponderSearch.get();
+            return Table.INSTANCE.opponent.execute(Table.INSTANCE.gameBoard, Table.INSTANCE.moveLog, false, control);
+        }
+
+        private void abandon() {
+            isAbandoned = true;
+            control.stop();
+            try {
+                get();
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch(final ExecutionException e) {
+                e.printStackTrace();
+            }
         }
 
         @Override
         public void done() {
+            if(isAbandoned) return;
             try {
                 final Move bestMove = get();
                 Table.INSTANCE.updateComputerMove(bestMove);
@@ -468,12 +625,11 @@ public class Table extends Observable {
                         bestMove, true).getTransitionBoard()
                 );
                 Table.INSTANCE.boardPanel.drawBoard(Table.INSTANCE.gameBoard);
-                Table.INSTANCE.moveLog.addMove(bestMove);
+                Table.INSTANCE.moveLog.addMove(bestMove, Table.INSTANCE.gameBoard);
                 final MoveLog log = Table.INSTANCE.moveLog;
                 Table.INSTANCE.gameHistoryPanel.redo(Table.INSTANCE.gameBoard, log);
                 Table.INSTANCE.takenPiecesPanel.redo(log);
-                if (isThreeFoldRepetition(bestMove, log) &&
-                        isThreeFoldRepetition(log.getMoves().get(log.size() - 1), log)) {
+                if (isThreeFoldRepetition(log)) {
                     JOptionPane.showMessageDialog(
                             Table.INSTANCE.gameFrame,
                             "Game over. Draw by repetition."
@@ -606,7 +762,7 @@ public class Table extends Observable {
                             final MoveTransition transition = gameBoard.currentPlayer().makeMove(move, false);
                             if(transition.getMoveStatus().isDone()){
                                 gameBoard = transition.getTransitionBoard();
-                                moveLog.addMove(move);
+                                moveLog.addMove(move, gameBoard);
                             }
                             sourceTile = null;
                             destinationTile = null;
@@ -618,13 +774,7 @@ public class Table extends Observable {
                                 gameHistoryPanel.redo(gameBoard, moveLog);
                                 takenPiecesPanel.redo(moveLog);
                                 boardPanel.drawBoard(gameBoard);
-                                if(isThreeFoldRepetition(
-                                        (moveLog.getMoves().size() > 0 ?
-                                        moveLog.getMoves().get(moveLog.getMoves().size() - 1): null), moveLog) &&
-                                        isThreeFoldRepetition(
-                                                (moveLog.getMoves().size() > 0 ?
-                                                        moveLog.getMoves().get(moveLog.getMoves().size() - 2): null), moveLog)
-                                ) {
+                                if(isThreeFoldRepetition(moveLog)) {
                                     JOptionPane.showMessageDialog(
                                             Table.INSTANCE.gameFrame,
                                             "Game over. Draw by repetition."
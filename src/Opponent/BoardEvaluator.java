@@ -1,6 +1,8 @@
 package Opponent;
 
+import Engine.Board.BitBoard;
 import Engine.Board.Board;
+import Engine.Board.SearchPosition;
 import Engine.Player.Player;
 
 public interface BoardEvaluator {
@@ -12,10 +14,73 @@ public interface BoardEvaluator {
     int PROMOTION_BONUS = 10000;
     int STALE_MATE_PENALTY = 60;
 
+    /**
+     * A method to determine whether or not a score is the score of a forced
+     * mate found by the search with depth to spare, rather than a score of
+     * material and position.
+     *
+     * @param score the score
+     * @return whether or not the score is a mate score
+     */
+    static boolean isMateScore(final int score) {
+        return Math.abs(score) >= CHECK_MATE_BONUS * DEPTH_BONUS / 2;
+    }
+
     default int evaluate(final Board board, final int depth) {
         return scorePlayer(board.whitePlayer(), depth) - scorePlayer(board.blackPlayer(), depth);
     }
 
+    /**
+     * A method to evaluate a {@code SearchPosition} with the terms of a
+     * {@code Board}, but for mobility. The score is from white's point of
+     * view.
+     *
+     * <p>
+     * Mobility is the count of pseudo-legal moves of each side rather than
+     * of its legal moves. The legal moves of the side which is not to move
+     * could only be counted by generating them as though it were its turn,
+     * a second full move generation at every leaf, for a term worth one
+     * point a move. The pseudo-legal count differs only by the moves of
+     * pinned pieces, the moves into check or which leave a check unanswered,
+     * the castles and the en passant captures, and it takes no move
+     * generation at all.
+     *
+     * <p>
+     * Whether or not the side to move has a legal move comes from the
+     * caller, which has generated the moves of the position already, or
+     * which knows that it stands pat on it.
+     *
+     * @param position the {@code SearchPosition} to evaluate
+     * @param depth the remaining depth
+     * @param hasLegalMoves whether or not the side to move has a legal move
+     * @return the score of the position
+     */
+    default int evaluate(final SearchPosition position, final int depth, final boolean hasLegalMoves) {
+        final boolean isInCheck = position.isInCheck();
+        return scoreSide(position, SearchPosition.WHITE, depth, isInCheck, hasLegalMoves) -
+               scoreSide(position, SearchPosition.BLACK, depth, isInCheck, hasLegalMoves);
+    }
+
+    private static int scoreSide(final SearchPosition position,
+                                 final int side,
+                                 final int depth,
+                                 final boolean isInCheck,
+                                 final boolean hasLegalMoves){
+        final boolean isOpponentToMove = position.getSideToMove() != side;
+        int score = position.mobility(side) +
+                (position.isCastled(side)? CASTLE_BONUS: 0) +
+                (position.hasPromoted(side)? PROMOTION_BONUS: 0);
+        for(int piece = SearchPosition.PAWN; piece <= SearchPosition.KING; piece++){
+            score += SearchPosition.pieceValue(piece) *
+                    BitBoard.count(position.getPieceBoard(piece + 6 * side));
+        }
+        if(isOpponentToMove && isInCheck) score += CHECK_BONUS;
+        if(isOpponentToMove && !hasLegalMoves) {
+            score += isInCheck? CHECK_MATE_BONUS * depthBonus(depth): STALE_MATE_PENALTY;
+        }
+        return score;
+    }
+
     private static int scorePlayer(final Player player, final int depth){
 
         return pieceValue(player) +
@@ -2,92 +2,105 @@ package Opponent;
 
 import Engine.Board.Board;
 import Engine.Board.Move;
+import Engine.Board.Move.MoveFactory;
+import Engine.Board.PackedMove;
+import Engine.Board.SearchPosition;
 import Engine.Board.Utility;
-import Engine.Pieces.Piece;
-import Engine.Player.MoveTransition;
 import GUI.MoveLog;
-import Engine.Player.Player;
-import Opponent.TableEntry.NodeType;
-import Engine.Board.Move.MoveFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.FutureTask;
 
 /**
  * Minimax
  *
- * THIS CLASS IS UNDER CONSTRUCTION
- * toDo debug Zobrist hash optimization, focus on alpha-beta nodes
- * toDo clean up
- *
- * <p>
- * Minimax is a search algorithm capable of choosing optimal moves in a zero-sum
- * game. A zero-sum game is one in which the respective gains and losses of the
- * two players (or teams) cancel each other out. This property ensures that a
- * loss for one player results in an equivalent gain for the other.
- *
- * <p>
- * The goal of minimax is to choose a move which minimizes the maximum loss
- * for the current player. The two players present in the game are designated
- * maximizer and minimizer and a sub-tree is created for each of the current
- * player's legal moves. At each level of recursion, the current player
- * alternates. at each node, all legal moves are tried out individually. When
- * the algorithm reaches a terminal node, the board is evaluated and scored,
- * and this score is returned up the tree. Each internal node selects only the
- * best score for its current player (minimum for minimizer, maximum for
- * maximizer). In this way, a single score is propagated back up each tree to
- * represent each of the initiating player's moves. Here, the highest-scoring
- * move is chosen for the initiating player. This process ensures that only
- * the wort-case scenario is considered for the initiating player-- A very
- * smart opponent.
- *
  * <p>
- * This minimax algorithm uses alpha-beta pruning to cut off large portions of
- * the search tree that need not be visited. If a part of the tree is guaranteed
- * to be cut off by a min or max node, then there is no need to look any further.
- * We can make this guarantee by setting the values of variables 'alpha' and 'beta'
- * as a score is returned from a child node up into a parent node. This process
- * relies on the fact that each search tree is navigated both iteratively and
- * recursively. For Example, after returning from a child min-node into a parent
- * max-node, alpha is set, and the algorithm enters the next child min-node. The
- * value that this min-node returns must be between alpha and beta. Beta is now
- * set during the execution of the min-node. If beta is less than alpha (since
- * this is a min-node), it will be impossible to find a value that is both greater
- * than alpha and less than beta. At this point, there is no need to continue
- * searching past this node, so we simply return beta.
+ * A negamax alpha-beta search which chooses a move for the side to move.
+ * Below the root it makes and unmakes packed moves on one mutable
+ * {@code SearchPosition}, and scores every node from the point of view of
+ * its side to move. It deepens iteratively within the limits of a
+ * {@link SearchControl}, and each iteration is a principal variation
+ * search within an aspiration window, with null-move pruning, late move
+ * reductions and a quiescence search of captures and promotions at the
+ * leaves. Moves are picked in stages, so that a node which is cut off
+ * early never generates the moves it doesn't search.
  *
  * <p>
- * This alpha-beta optimization works best if the moves are sorted beforehand.
- * If the algorithm is presented with higher-scoring moves first, it will be
- * enabled to prune as much of the current tree as possible. For this reason,
- * moves are typically ordered with attack moves before passive moves. The
- * attack moves are then sorted by the value of the attacked piece. E.g. an
- * attack on a queen will come before an attack on a rook etc.
- *
- * <p>
- * This minimax algorithm is equipped with a dynamic transposition table,
- * allowing it to avoid repetitious calculations. If the current board has an
- * exact score associated with it in the transposition table, then that score
- * may be used in place of a deeper search. The table used in this particular
- * algorithm is a {@code HashMap} with Zobrist hash-keys. This {@code HashMap}
- * allows for constant-time retrieval of mapped scores.
+ * Results are kept from one move to the next in a shared
+ * {@code TranspositionTable}, which also lets the search run on several
+ * threads in the manner of Lazy SMP: helpers search the same root on their
+ * own positions and fill the table, and only the main search reports its
+ * move. The search reports its progress through {@link SearchStats} and
+ * each {@link SearchListener}, and may ponder on the opponent's time.
  *
  * @author Ellie Moore
  * @version 06.26.2020
  */
 public final class Minimax implements MoveStrategy {
 
-    /*
-     * Static Move comparator for use in sorting AttackMoves.
-     * This comparator compares two generic Moves. Type must be verified
-     * beforehand.
-     */
-    protected static final Comparator<Move> ATTACK_COMPARATOR;
-    static {
-        ATTACK_COMPARATOR = (o1, o2) -> Integer.compare(
-                (o2.getAttackedPiece().getPieceValue()),
-                (o1.getAttackedPiece().getPieceValue())
-        );
-    }
+    /**
+     * A score greater than any evaluation. Its negation is used in place of
+     * {@code Integer.MIN_VALUE}, which cannot be negated.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * The score of a position which repeats an earlier one.
+     */
+    private static final int DRAW_SCORE = 0;
+
+    /**
+     * The budget is checked once every {@code BUDGET_CHECK_INTERVAL} nodes,
+     * which must be a power of two.
+     */
+    private static final int BUDGET_CHECK_INTERVAL = 1024;
+
+    /**
+     * The half-width of the first aspiration window around the score of the
+     * last iteration, the factor by which a window grows when the score
+     * falls outside of it, and the half-width beyond which a window is
+     * opened all the way instead.
+     */
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_GROWTH = 4;
+    private static final int MAX_ASPIRATION_WINDOW = 1000;
+
+    /**
+     * The smallest remaining depth at which the search is reduced, either by
+     * a null move or by a late move reduction, and the index of the first
+     * move of a node which may be reduced.
+     */
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    private static final int REDUCTION_MIN_MOVE_INDEX = 3;
+
+    /**
+     * The number of killer moves kept for each ply.
+     */
+    private static final int KILLERS_PER_PLY = 2;
+
+    /**
+     * The factor by which the value of a victim outweighs the type of its
+     * attacker in the MVV-LVA score of a capture.
+     */
+    private static final int MVV_LVA_SCALE = 16;
+
+    /**
+     * The margin by which a capture must be able to raise the static value of
+     * a quiescence node above alpha for it to be searched. The margin allows
+     * for the positional swing of a capture.
+     */
+    private static final int DELTA_MARGIN = 200;
+
+    /**
+     * The history scores are halved when one of them reaches
+     * {@code HISTORY_LIMIT}.
+     */
+    private static final int HISTORY_LIMIT = 1 << 24;
 
     /**
      * The depth of the search. This variable represents the depth limit for
@@ -96,11 +109,143 @@ public final class Minimax implements MoveStrategy {
     private int depth;
 
     /**
-     * A transposition table for use in mapping {@code Board} states to scores.
-     * This table enables {@code Minimax} to avoid searching for a score that
-     * it has already calculated.
+     * Whether or not the search prunes with null moves.
+     */
+    private boolean isNullMovePruning;
+
+    /**
+     * Whether or not the search reduces late quiet moves.
+     */
+    private boolean isLateMoveReductions;
+
+    /**
+     * The number of ranked lines the search finds at each iteration.
+     */
+    private int multiPV;
+
+    /**
+     * The time budget of a search without a {@code SearchControl} in
+     * milliseconds, or 0 if there is none.
+     */
+    private long timeBudget;
+
+    /**
+     * The node budget of a search without a {@code SearchControl}, or 0 if
+     * there is none.
+     */
+    private long nodeBudget;
+
+    /**
+     * The limits and stop flag of the current search.
+     */
+    private SearchControl control;
+
+    /**
+     * The statistics of the current search. The main search counts into the
+     * stats of its control, and each helper into stats of its own, which
+     * are added to the main stats when the search ends.
+     */
+    private SearchStats stats;
+
+    /**
+     * The number of nodes counted into the stats so far, published once
+     * every BUDGET_CHECK_INTERVAL nodes, so that the main search can count
+     * the nodes of its helpers while they are still searching.
+     */
+    private volatile long publishedNodes;
+
+    /**
+     * The listeners to the progress of each search.
+     */
+    private final List<SearchListener> listeners;
+
+    /**
+     * The depth of the last completed iteration of the current search.
+     */
+    private int completedDepth;
+
+    /**
+     * The score of the root from the last root search.
+     */
+    private int rootValue;
+
+    /**
+     * Whether or not the current search has scored a root move, and so has a
+     * move to play if it runs out of budget.
+     */
+    private boolean hasScoredMove;
+
+    /**
+     * Whether or not the current search has run out of budget or been told
+     * to stop. Once set, every node returns at once, and the unfinished
+     * iteration is discarded. A helper is stopped from the main search
+     * thread.
+     */
+    private volatile boolean isStopped;
+
+    /**
+     * The reply expected to the best move of the last search, or no move.
+     */
+    private int ponderMove;
+
+    /**
+     * The index of a helper, or 0 for the main search.
+     */
+    private final int helperIndex;
+
+    /**
+     * The helpers which search alongside the main search, one for each extra
+     * thread.
+     */
+    private Minimax[] helpers;
+
+    /**
+     * The threads which run the helpers, or {@code null} if there are none.
+     */
+    private ExecutorService helperThreads;
+
+    /**
+     * A transposition table for use in mapping positions to scores and best
+     * moves. This table enables {@code Minimax} to avoid searching for a score
+     * that it has already calculated.
+     */
+    private final TranspositionTable transpositions;
+
+    /**
+     * A preallocated buffer of packed moves for each ply of the search. A
+     * node generates its moves into the buffer of its own ply, so the buffer
+     * of a parent is never written by its children.
+     */
+    private final int[][] moveBuffers;
+
+    /**
+     * A buffer of ordering scores, parallel to a move buffer.
+     */
+    private final int[] moveScores;
+
+    /**
+     * A staged move picker for each ply of the search, over the move buffer
+     * of its ply.
+     */
+    private final MovePicker[] pickers;
+
+    /**
+     * The quiet moves which last caused a cutoff at each ply, the most
+     * recent first.
+     */
+    private final int[][] killers;
+
+    /**
+     * The history score of each quiet move, indexed by side and then by
+     * origin and destination.
      */
-    private HashMap<Long, TableEntry> transpositions;
+    private final int[][] history;
+
+    /**
+     * The quiet move which last caused a cutoff in reply to each move,
+     * indexed by the origin and destination of the move replied to.
+     */
+    private final int[] counterMoves;
 
     /**
      * A {@code List} of execution times for use in debugging and calculating
@@ -110,16 +255,10 @@ public final class Minimax implements MoveStrategy {
 
     /**
      * A {@code QuiescenceSearch}. This is an additional search which starts
-     * from every violent, terminal node of minimax.
+     * from every terminal node of minimax.
      */
     protected final QuiescenceSearch quiescenceSearch;
 
-    /**
-     * A {@code PromotionSearch}. This is an additional search used to encourage
-     * pawn promotion once the board has lost its power pieces.
-     */
-    protected final PromotionSearch promotionSearch;
-
     /**
      * A standard {@code BoardEvaluator}. This is an evaluation tool which can
      * be used to assess the state of the current board, producing an integer
@@ -127,20 +266,114 @@ public final class Minimax implements MoveStrategy {
      */
     protected final BoardEvaluator evaluator;
 
+    /**
+     * A public constructor for {@code Minimax} with a transposition table of
+     * the default size.
+     *
+     * @param depth the depth of the search.
+     */
+    public Minimax(final int depth,
+                   final int quiescenceDepth){
+        this(depth, quiescenceDepth, TranspositionTable.DEFAULT_SIZE_IN_MEGABYTES);
+    }
+
     /**
      * A public constructor for {@code Minimax}.
      *
      * @param depth the depth of the search.
+     * @param tableSizeInMegabytes the size of the transposition table in megabytes
      */
     public Minimax(final int depth,
                    final int quiescenceDepth,
-                   final int promotionDepth){
+                   final int tableSizeInMegabytes){
         this.depth = depth;
         this.quiescenceSearch = new QuiescenceSearch(quiescenceDepth);
-        this.promotionSearch = new PromotionSearch(promotionDepth);
-        this.transpositions = new HashMap<>(100000);
+        this.transpositions = new TranspositionTable(tableSizeInMegabytes);
         this.executionTimes = new ArrayList<>();
+        this.moveBuffers = new int[SearchPosition.MAX_PLY][PackedMove.MAX_MOVES];
+        this.moveScores = new int[PackedMove.MAX_MOVES];
+        this.pickers = newPickers();
+        this.killers = new int[SearchPosition.MAX_PLY][KILLERS_PER_PLY];
+        this.history = new int[2][Utility.NUMBER_OF_TILES * Utility.NUMBER_OF_TILES];
+        this.counterMoves = new int[Utility.NUMBER_OF_TILES * Utility.NUMBER_OF_TILES];
         this.evaluator = new BoardEvaluator(){};
+        this.helperIndex = 0;
+        this.helpers = new Minimax[0];
+        this.control = SearchControl.unlimited();
+        this.stats = new SearchStats();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.isNullMovePruning = true;
+        this.isLateMoveReductions = true;
+        this.multiPV = 1;
+    }
+
+    /*
+     * A private constructor for a helper, which shares the transposition
+     * table and the depths of the main search.
+     */
+    private Minimax(final Minimax main, final int helperIndex){
+        this.depth = main.depth;
+        this.quiescenceSearch = new QuiescenceSearch(main.quiescenceSearch.depth);
+        this.transpositions = main.transpositions;
+        this.executionTimes = new ArrayList<>();
+        this.moveBuffers = new int[SearchPosition.MAX_PLY][PackedMove.MAX_MOVES];
+        this.moveScores = new int[PackedMove.MAX_MOVES];
+        this.pickers = newPickers();
+        this.killers = new int[SearchPosition.MAX_PLY][KILLERS_PER_PLY];
+        this.history = new int[2][Utility.NUMBER_OF_TILES * Utility.NUMBER_OF_TILES];
+        this.counterMoves = new int[Utility.NUMBER_OF_TILES * Utility.NUMBER_OF_TILES];
+        this.evaluator = main.evaluator;
+        this.helperIndex = helperIndex;
+        this.helpers = new Minimax[0];
+        this.control = main.control;
+        this.stats = new SearchStats();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.isNullMovePruning = main.isNullMovePruning;
+        this.isLateMoveReductions = main.isLateMoveReductions;
+        this.multiPV = 1;
+    }
+
+    /*
+     * This method creates a staged move picker for each ply of the search.
+     */
+    private MovePicker[] newPickers(){
+        final MovePicker[] pickers = new MovePicker[SearchPosition.MAX_PLY];
+        for(int ply = 0; ply < pickers.length; ply++) pickers[ply] = new MovePicker(moveBuffers[ply]);
+        return pickers;
+    }
+
+    /*
+     * This method creates a worker for a parallel search: a Minimax with
+     * its own move buffers, which shares this transposition table.
+     */
+    Minimax newWorker(){
+        return new Minimax(this, 0);
+    }
+
+    /*
+     * This method hands a worker of a parallel search the control of the
+     * search. A worker may stop at any node, since the parallel search keeps
+     * a move to play itself.
+     */
+    void setControl(final SearchControl control){
+        this.control = control;
+        this.isStopped = control.isExhausted();
+        this.hasScoredMove = true;
+    }
+
+    /*
+     * This method exposes the stats of a worker to a parallel search, which
+     * adds them up.
+     */
+    SearchStats getStats(){
+        return this.stats;
+    }
+
+    /*
+     * This method exposes the transposition table to a parallel search.
+     */
+    TranspositionTable getTranspositionTable(){
+        return this.transpositions;
     }
 
     /**
@@ -152,6 +385,143 @@ public final class Minimax implements MoveStrategy {
         return this.depth;
     }
 
+    /**
+     * A method to turn null-move pruning on or off. It is on by default.
+     *
+     * @param isNullMovePruning whether or not the search prunes with null moves
+     */
+    public void setNullMovePruning(final boolean isNullMovePruning){
+        this.isNullMovePruning = isNullMovePruning;
+        for(final Minimax helper: helpers) helper.isNullMovePruning = isNullMovePruning;
+    }
+
+    /**
+     * A method to turn late move reductions on or off. They are on by
+     * default.
+     *
+     * @param isLateMoveReductions whether or not the search reduces late quiet moves
+     */
+    public void setLateMoveReductions(final boolean isLateMoveReductions){
+        this.isLateMoveReductions = isLateMoveReductions;
+        for(final Minimax helper: helpers) helper.isLateMoveReductions = isLateMoveReductions;
+    }
+
+    /**
+     * A method to set the number of ranked lines the search finds at each
+     * iteration. The best line is found as usual. Each of the next is found
+     * by searching the root again without the root moves of the lines
+     * found already, on the same transposition table. It is 1 by default.
+     *
+     * @param multiPV the number of lines, at least 1
+     */
+    public void setMultiPV(final int multiPV){
+        if(multiPV < 1) throw new IllegalArgumentException("The search needs at least one line.");
+        this.multiPV = multiPV;
+    }
+
+    /**
+     * A method to limit the time of each search which is not given a
+     * {@code SearchControl}. The first root move is always scored, so that
+     * there is a move to play.
+     *
+     * @param timeBudget the time budget in milliseconds, or 0 for none
+     */
+    public void setTimeBudget(final long timeBudget){
+        if(timeBudget < 0) throw new IllegalArgumentException("The time budget may not be negative.");
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * A method to limit the number of nodes visited by each search which is
+     * not given a {@code SearchControl}. The first root move is always
+     * scored, so that there is a move to play.
+     *
+     * @param nodeBudget the node budget, or 0 for none
+     */
+    public void setNodeBudget(final long nodeBudget){
+        if(nodeBudget < 0) throw new IllegalArgumentException("The node budget may not be negative.");
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * A method to add a listener to the progress of each search.
+     *
+     * @param listener the {@code SearchListener} to add
+     */
+    public void addSearchListener(final SearchListener listener){
+        listeners.add(listener);
+    }
+
+    /**
+     * A method to remove a listener to the progress of each search.
+     *
+     * @param listener the {@code SearchListener} to remove
+     */
+    public void removeSearchListener(final SearchListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * A method to set the number of threads which search each move. Every
+     * thread but the calling thread runs a helper.
+     *
+     * @param threadCount the number of threads, at least 1
+     */
+    public void setThreadCount(final int threadCount){
+        if(threadCount < 1) throw new IllegalArgumentException("The search needs at least one thread.");
+        shutdown();
+        helpers = new Minimax[threadCount - 1];
+        for(int i = 0; i < helpers.length; i++) helpers[i] = new Minimax(this, i + 1);
+        if(helpers.length != 0) helperThreads = Executors.newFixedThreadPool(helpers.length, runnable -> {
+            final Thread thread = new Thread(runnable, "Minimax helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A method to release the helper threads. The search runs on the calling
+     * thread alone afterwards.
+     */
+    public void shutdown(){
+        if(helperThreads != null) helperThreads.shutdownNow();
+        helperThreads = null;
+        helpers = new Minimax[0];
+    }
+
+    /**
+     * A method to expose the reply expected to the best move of the last
+     * search: the best move of its position in the transposition table.
+     *
+     * @param board the {@code Board} after the best move of the last search
+     * @return the expected reply, or {@code MoveFactory.NULL_MOVE} if there is none
+     */
+    public Move getPonderMove(final Board board){
+        return ponderMove == PackedMove.NO_MOVE? MoveFactory.NULL_MOVE: MoveFactory.produce(board, ponderMove);
+    }
+
+    /**
+     * A method to search on the opponent's time. The given {@code Board} is
+     * the one expected after the opponent's reply, and it is searched on a
+     * thread of its own, filling the transposition table. The clock of the
+     * control is not started: the caller starts it on a ponder hit, and the
+     * search carries on as the search of the actual position under its
+     * limits. On a miss, the caller stops the control and discards the
+     * result. No other search may run until this one has returned.
+     *
+     * @param board the {@code Board} expected after the opponent's reply
+     * @param log the {@code MoveLog} of that {@code Board}, which is not shared with the game
+     * @param control the limits and stop flag of the search
+     * @return the pending result of the search
+     */
+    public Future<Move> ponder(final Board board, final MoveLog log, final SearchControl control){
+        final FutureTask<Move> search = new FutureTask<>(() -> think(board, log, false, control, true));
+        final Thread thread = new Thread(search, "Minimax ponder");
+        thread.setDaemon(true);
+        thread.start();
+        return search;
+    }
+
     /**
      * @inheritDoc
      */
@@ -178,516 +548,917 @@ public final class Minimax implements MoveStrategy {
      */
     @Override
     public Move execute(Board board, MoveLog log, boolean allMovesAreExhausted) {
+        return execute(board, log, allMovesAreExhausted,
+                new SearchControl.Builder().setTimeLimit(timeBudget).setNodeLimit(nodeBudget).build());
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Move execute(Board board, MoveLog log, boolean allMovesAreExhausted, SearchControl control) {
+        return think(board, log, allMovesAreExhausted, control, false);
+    }
+
+    /*
+     * This method searches the root under the given control. A pondering
+     * search leaves the clock of the control to be started by its caller.
+     */
+    private Move think(final Board board, final MoveLog log, final boolean allMovesAreExhausted,
+                       final SearchControl control, final boolean isPondering) {
 
-        transpositions = new HashMap<>(100000);
+        // Age the entries of earlier searches, rather than discarding them.
+        transpositions.newSearch();
+        ageHeuristics();
 
         // Print depth and number of moves to terminal/console.
-        System.out.println(board.currentPlayer() + " thinking with depth = " + depth);
+        final int depthLimit = control.getDepthLimit(depth);
+        System.out.println(board.currentPlayer() + " thinking with depth = " + depthLimit);
         System.out.println("Considering " + board.currentPlayer().getLegalMoves().size() + " moves.");
 
         // Record start time.
         final long startTime = System.currentTimeMillis();
 
-        // Determine whether or not the player is weak enough to search for promotion.
-        //final boolean boardLacksPowerPieces = board.currentPlayer().getPieceValueScore() <= 11400;
-
         /*
-         * Initialize alpha and beta. Set 'highestValue' and 'lowestValue' to java min and max
-         * integer values respectively. Either 'highestValue' or 'lowestValue' will be replaced
-         * as the first move is scored, depending on the alliance of the current player.
+         * Copy the board into a mutable search position. Every node below the root is made
+         * and unmade on this one position, rather than built as a new board.
          */
-        final int alpha;
-        final int beta;
-        int highestValue = alpha = Integer.MIN_VALUE;
-        int lowestValue = beta = Integer.MAX_VALUE;
+        final SearchPosition position = new SearchPosition(board, log.getPositions());
+        final int[] rootMoves = moveBuffers[position.getPly()];
+        final int rootMoveCount = position.generateMoves(rootMoves);
+
+        // Find the moves which would repeat a position of the game.
+        final boolean[] isRepeating = repeatingMoves(position);
+
+        // Reset the budget.
+        this.control = control;
+        if(!isPondering) control.start();
+        isStopped = control.isStopped();
+        stats = control.getStats();
+        stats.reset();
+        completedDepth = 0;
+        hasScoredMove = false;
+        ponderMove = PackedMove.NO_MOVE;
+
+        // A side with no legal move is mated or stalemated, and has no move to choose.
+        if(rootMoveCount == 0) return MoveFactory.NULL_MOVE;
+
+        // Set the helpers searching alongside.
+        final List<Future<?>> helperSearches = startHelpers(
+                board, log, isRepeating, allMovesAreExhausted, depthLimit
+        );
+
+        // Search the captures first in the first iteration.
+        orderMoves(position, rootMoves, rootMoveCount, PackedMove.NO_MOVE);
 
-        // Get the current player's legal moves.
-        final Collection<Move> legalMoves = board.currentPlayer().getLegalMoves();
+        // Initialize 'bestMove' to no move.
+        int bestMove = PackedMove.NO_MOVE;
 
         /*
-         * Calculate the Zobrist hash code for the current board. This code will be used as a
-         * base for future hash codes, and allow for constant-time score lookup via transposition
-         * table.
+         * Search the root to each depth in turn, until the depth limit is reached or the
+         * budget runs out. Each iteration tries the best move of the last iteration first.
          */
-        final long hash = board.zobristHash();
+        for(int iterationDepth = 1; iterationDepth <= depthLimit; iterationDepth++){
+            moveToFront(rootMoves, 0, rootMoveCount, bestMove);
+
+            /*
+             * Search a narrow window around the score of the last iteration. If the score
+             * falls outside of the window, widen the window on that side and search again.
+             */
+            int window = ASPIRATION_WINDOW;
+            int alpha = iterationDepth == 1? -INFINITY: rootValue - window;
+            int beta = iterationDepth == 1? INFINITY: rootValue + window;
+            int move;
+            while(true){
+                move = searchRoot(
+                        position, rootMoves, 0, rootMoveCount, isRepeating, allMovesAreExhausted,
+                        iterationDepth, alpha, beta
+                );
+                if(isStopped || move == PackedMove.NO_MOVE) break;
+                window *= ASPIRATION_GROWTH;
+                final boolean isWide = window > MAX_ASPIRATION_WINDOW;
+                if(rootValue <= alpha && alpha != -INFINITY)
+                    alpha = isWide? -INFINITY: rootValue - window;
+                else if(rootValue >= beta && beta != INFINITY) {
+                    beta = isWide? INFINITY: rootValue + window;
+                    moveToFront(rootMoves, 0, rootMoveCount, move);
+                } else break;
+            }
 
-        // Initialize 'bestMove' to null.
-        Move bestMove = null;
+            // Stop if every move repeats, or if the budget ran out.
+            if(move == PackedMove.NO_MOVE) break;
+            bestMove = move;
+            if(isStopped) break;
 
-        /*
-         * Iterate through all of the current players legal moves and try out each one.
-         * Search a minimax tree for each move and return the move with the minimum (if
-         * current player is minimizer) or maximum (if current player is maximizer) score.
-         */
-        for(final Move move: legalMoves){
-
-            // If the move is not repeating a move made recently in the game.
-            if(allMovesAreExhausted || !isRepeating(move, log) ||
-               board.currentPlayer().getLegalMoves().size() <= 1) {
-
-                // Make the move.
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-
-                // If the move is legal and doesn't leave the current player in check.
-                if(moveTransition.getMoveStatus().isDone()) {
-
-                    // Search to score the move. White is maximizer, black is minimizer.
-                    // Update the board's hash code upon entering into the search tree.
-                    final int currentValue = board.currentPlayer().getAlliance().isWhite() ?
-                            min(
-                                    moveTransition.getTransitionBoard(),
-                                    depth - 1, alpha, beta, move, updateHash(hash, move)
-                            ) :
-                            max(
-                                    moveTransition.getTransitionBoard(),
-                                    depth - 1, alpha, beta, move, updateHash(hash, move)
-                            );
-
-                    // Select the best move.
-                    if (board.currentPlayer().getAlliance().isWhite() &&
-                            currentValue >= highestValue) {
-                        highestValue = currentValue;
-                        bestMove = move;
-                    } else if (board.currentPlayer().getAlliance().isBlack() &&
-                            currentValue <= lowestValue) {
-                        lowestValue = currentValue;
-                        bestMove = move;
-                    }
+            // Report the best line, and find and report the next best lines in multi-PV mode.
+            moveToFront(rootMoves, 0, rootMoveCount, bestMove);
+            searchLines(position, rootMoves, rootMoveCount, isRepeating, allMovesAreExhausted, iterationDepth);
+            completedDepth = iterationDepth;
+            stats.completeIteration(iterationDepth, helperNodes());
+            for(final SearchListener listener: listeners) listener.iterationCompleted(stats);
 
-                }
-            }
+            // Stop once a forced mate is proven. A deeper iteration would only prove it again.
+            if(BoardEvaluator.isMateScore(rootValue)) break;
+
+            // Don't start an iteration which could not finish in the time left.
+            if(!control.hasTimeForIteration()) break;
         }
-        System.out.println(transpositions.size());
+        stopHelpers(helperSearches);
 
         // If a best move isn't found, try again. But this time include
-        // all moves, even those that are found in the move log.
-        if(bestMove == null) return execute(board, log, true);
+        // all moves, even those which repeat a position of the game. A search
+        // stopped before it scored a move plays the first move instead.
+        if(bestMove == PackedMove.NO_MOVE) {
+            if(!isStopped && !allMovesAreExhausted) return think(board, log, true, control, isPondering);
+            bestMove = rootMoves[0];
+        }
+        ponderMove = expectedReply(position, bestMove);
 
         // Calculate and stow execution time.
         final double time = ((double)(System.currentTimeMillis() - startTime))/1000.0;
         executionTimes.add(time);
 
-        // Print execution time to terminal/console.
+        // Print execution time and stats to terminal/console.
+        stats.complete(transpositions.hashfull());
         System.out.println(String.format("%.2f seconds", time));
+        System.out.println(stats);
 
-        return bestMove;
+        // Convert the best move into a Move for the caller.
+        final Move move = MoveFactory.produce(board, bestMove);
+        for(final SearchListener listener: listeners) listener.searchCompleted(move, stats);
+        return move;
 
     }
 
-    private static boolean isRepeating(Move move, MoveLog log){
-        for (Move m: log.getMoves()) if (m.equals(move)) return true;
-        return false;
+    /*
+     * This method reports the line of the best move of an iteration, which
+     * leads the root moves. In multi-PV mode, it then searches the root
+     * again for each next line, without the root moves of the lines found
+     * already, which are kept at the front in order of rank. Each pass
+     * searches the full window, but the table is warm from the passes
+     * before, so most of its nodes are cut off early. The lines are kept in
+     * the control only if every pass completes. The root score is left at
+     * the score of the best line, for the aspiration window of the next
+     * iteration.
+     */
+    private void searchLines(final SearchPosition position, final int[] rootMoves, final int rootMoveCount,
+                             final boolean[] isRepeating, final boolean allMovesAreExhausted, final int depth){
+        final int bestValue = rootValue;
+        final List<PrincipalVariation> lines = new ArrayList<>(multiPV);
+        addLine(lines, position, depth, bestValue, rootMoves[0]);
+        for(int rank = 1; rank < multiPV && rank < rootMoveCount; rank++){
+            final int move = searchRoot(
+                    position, rootMoves, rank, rootMoveCount, isRepeating, allMovesAreExhausted,
+                    depth, -INFINITY, INFINITY
+            );
+            if(isStopped || move == PackedMove.NO_MOVE) break;
+            moveToFront(rootMoves, rank, rootMoveCount, move);
+            addLine(lines, position, depth, rootValue, move);
+        }
+        rootValue = bestValue;
+        if(!isStopped) control.setLines(lines);
     }
 
-    private static boolean isEndGame(final Board board){
-        final boolean hasEscapeMoves = board.currentPlayer().hasEscapeMoves();
-        return board.currentPlayer().isInCheckMate(hasEscapeMoves) ||
-                board.currentPlayer().isInStaleMate(hasEscapeMoves);
+    /*
+     * This method adds the line of a root move to the lines of an iteration,
+     * and reports it to the listeners.
+     */
+    private void addLine(final List<PrincipalVariation> lines, final SearchPosition position,
+                         final int depth, final int score, final int move){
+        final PrincipalVariation line = new PrincipalVariation(
+                lines.size() + 1, depth, score, principalVariation(position, move, depth)
+        );
+        lines.add(line);
+        for(final SearchListener listener: listeners) listener.lineCompleted(line);
     }
 
-    // Order moves pre-search to prune as many sub-trees as possible.
-    private static List<Move> orderedMoves(final Board board, final Move tableMove, final int depth, final int entryDepth) {
-        final List<Move> attackMoves = new ArrayList<>();
-        final List<Move> passiveMoves = new ArrayList<>();
-        final Move foundMove = MoveFactory.produce(
-                board, tableMove.getCurrentCoordinate(), tableMove.getDestinationCoordinate()
-        );
-        for (Move move : board.currentPlayer().getLegalMoves()) {
-            if (!move.equals(foundMove)) {
-                if (move.isAttack()) attackMoves.add(move);
-                else passiveMoves.add(move);
-            }
-        }
-        /*if (tableMove != MoveFactory.NULL_MOVE) {
-            System.out.println(board.currentPlayer().getLegalMoves());
-            System.out.println(board.currentPlayer().getAlliance());
-            System.out.println(tableMove.getMovedPiece().getPieceAlliance());
-            System.out.println(tableMove);
-            System.out.println(foundMove);
-            System.out.println("node depth " + depth);
-            System.out.println("entry depth " + entryDepth);
-        }*/
-        attackMoves.sort(ATTACK_COMPARATOR);
-        if(foundMove != MoveFactory.NULL_MOVE){
-            if(foundMove.isAttack())attackMoves.add(0, foundMove);
-            else passiveMoves.add(0, foundMove);
+    /*
+     * This method reads the line which follows a root move from the
+     * transposition table, up to the given depth. The line ends at a move
+     * which is not legal, since the entry may belong to another position,
+     * and at a repetition, which would lead it round in circles.
+     */
+    private int[] principalVariation(final SearchPosition position, final int move, final int depth){
+        final int[] line = new int[depth];
+        int length = 0;
+        line[length++] = move;
+        position.make(move);
+        while(length < depth && !position.isRepetition()){
+            final int reply = tableMove(position);
+            if(!position.isLegal(reply)) break;
+            line[length++] = reply;
+            position.make(reply);
         }
-        return (List<Move>) Utility.concat(attackMoves, passiveMoves);
+        for(int i = 0; i < length; i++) position.unmake();
+        return Arrays.copyOf(line, length);
     }
 
     /*
-     * This method uses XOR to update the board's hash code, XORing the
-     * piece out of the hash code and then back in at its destination.
-     */
-    private static long updateHash(final long hash, final Move move){
-        long h = hash;
-        Piece movedPiece = move.getMovedPiece();
-        h ^= movedPiece.zobristHash(move.getCurrentCoordinate());
-        h ^= movedPiece.zobristHash(move.getDestinationCoordinate());
-        return h;
-    }
-
-    private int min(final Board board, final int depth, int alpha, int beta,
-                    final Move prev, long nodeHash){
-        final boolean isEndGame = isEndGame(board);
-        if(depth == 0 || isEndGame){
-            if(!isEndGame){
-                if(prev.isAttack()) {
-                    final TableEntry nodeEntry = transpositions.get(nodeHash);
-                    Move tableMove = MoveFactory.NULL_MOVE;
-                    if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-                    final List<Move> retaliationMoves = quiescenceSearch.orderedAttackMoves(board, tableMove);
-                    if (!retaliationMoves.isEmpty()) return quiescenceSearch.min(
-                            board, depth - 1, alpha, beta, prev, retaliationMoves, nodeHash
-                    );
-                }
-            }
-            return evaluator.evaluate(board, depth);
-        }
-        final TableEntry nodeEntry = transpositions.get(nodeHash);
-        Move tableMove = MoveFactory.NULL_MOVE;
-        if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-        int lowestValue = Integer.MAX_VALUE;
-        Move bestMove = MoveFactory.NULL_MOVE;
-        for(final Move move: orderedMoves(board, tableMove, depth, nodeEntry != null? nodeEntry.depth: 0)){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-            if(moveTransition.getMoveStatus().isDone()){
-                final long currentHash = updateHash(nodeHash, move);
-                final int currentValue; final TableEntry foundEntry = transpositions.get(currentHash);
-                TableEntry newEntry = null;
-                if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                    currentValue = foundEntry.score;
-                    foundEntry.keep = true;
-                } else {
-                    currentValue = max(
-                        moveTransition.getTransitionBoard(),
-                        depth - 1, alpha, beta, move, currentHash
-                    );
-                }
-                if(currentValue <= lowestValue) {
-                    lowestValue = currentValue; beta = Math.min(beta, lowestValue);
-                    bestMove = move;
-                }
-                if(beta <= alpha) {
-                    /*if(nodeEntry == null || nodeEntry.depth < depth || !nodeEntry.keep) {
-                        transpositions.put(nodeHash, newEntry = new TableEntry(lowestValue, depth, bestMove));
-                        newEntry.type = NodeType.BETA;
-                    }*/
-                    return lowestValue;
-                }
-                //if(newEntry != null) System.out.println(newEntry.type);
-            }
-        }
-        TableEntry newEntry;
-        /*if(nodeEntry == null || nodeEntry.depth < depth || !nodeEntry.keep) {
-            transpositions.put(nodeHash, newEntry = new TableEntry(lowestValue, depth, bestMove));
-            if (lowestValue < alpha) newEntry.type = NodeType.ALPHA;
-        }*/
-        return lowestValue;
-    }
-
-    private int max(final Board board, final int depth, int alpha, int beta,
-                    final Move prev, long nodeHash){
-        final boolean isEndGame = isEndGame(board);
-        if(depth == 0 || isEndGame){
-            if(!isEndGame){
-                if(prev.isAttack()) {
-                    final TableEntry nodeEntry = transpositions.get(nodeHash);
-                    Move tableMove = MoveFactory.NULL_MOVE;
-                    if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-                    final List<Move> retaliationMoves = quiescenceSearch.orderedAttackMoves(board, tableMove);
-                    if (!retaliationMoves.isEmpty()) return quiescenceSearch.max(
-                            board, depth - 1, alpha, beta, prev, retaliationMoves, nodeHash
-                    );
-                }
-            }
-            return evaluator.evaluate(board, depth);
-        }
-        final TableEntry nodeEntry = transpositions.get(nodeHash);
-        Move tableMove = MoveFactory.NULL_MOVE;
-        if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-        int highestValue = Integer.MIN_VALUE;
-        Move bestMove = MoveFactory.NULL_MOVE;
-        for(final Move move: orderedMoves(board, tableMove, depth, nodeEntry != null? nodeEntry.depth: 0)){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-            if(moveTransition.getMoveStatus().isDone()){
-                final long currentHash = updateHash(nodeHash, move);
-                final int currentValue; final TableEntry foundEntry = transpositions.get(currentHash);
-                TableEntry newEntry = null;
-                if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                    currentValue = foundEntry.score;
-                    foundEntry.keep = true;
-                } else {
-                    currentValue = min(
-                            moveTransition.getTransitionBoard(),
-                            depth - 1, alpha, beta, move, currentHash
-                    );
+     * This method searches each of the root moves from the given index to
+     * the given depth and returns the best, or no move if every move
+     * repeats. The moves before the index are left out, so that the search
+     * may find the next best lines in multi-PV mode. The result of a search
+     * of every root move is stored in the transposition table, to lead the
+     * next iteration. If the budget runs out, no move is returned, unless
+     * this is the first iteration: then the best of the moves scored so far
+     * is returned.
+     */
+    private int searchRoot(final SearchPosition position, final int[] rootMoves,
+                           final int firstMove, final int rootMoveCount,
+                           final boolean[] isRepeating, final boolean allMovesAreExhausted,
+                           final int depth, int alpha, final int beta){
+
+        /*
+         * Scores are from the point of view of the side to move, so alpha is raised as
+         * each of the current player's moves is scored.
+         */
+        final int originalAlpha = alpha;
+        int highestValue = -INFINITY;
+
+        // Initialize 'bestMove' to no move.
+        int bestMove = PackedMove.NO_MOVE;
+
+        /*
+         * Iterate through all of the current players legal moves and try out each one.
+         * Search a negamax tree for each move and return the move with the maximum score.
+         * The first move is searched with the full window, and the rest with a null window
+         * which only proves them no better, unless one turns out to be better after all.
+         */
+        for(int i = firstMove; i < rootMoveCount; i++){
+            final int move = rootMoves[i];
+
+            // If the move does not repeat a position of the game.
+            if(allMovesAreExhausted || !isRepeating[fromTo(move)] || rootMoveCount <= 1) {
+
+                // Search to score the move.
+                position.make(move);
+                int currentValue;
+                if(bestMove == PackedMove.NO_MOVE)
+                    currentValue = -search(position, depth - 1, -beta, -alpha);
+                else {
+                    currentValue = -search(position, depth - 1, -alpha - 1, -alpha);
+                    if(currentValue > alpha && currentValue < beta)
+                        currentValue = -search(position, depth - 1, -beta, -alpha);
                 }
-                if(currentValue >= highestValue){
+                position.unmake();
+                if(isStopped) return completedDepth == 0? bestMove: PackedMove.NO_MOVE;
+
+                // Select the best move.
+                if(bestMove == PackedMove.NO_MOVE || currentValue > highestValue) {
                     highestValue = currentValue;
-                    alpha = Math.max(alpha, highestValue);
                     bestMove = move;
                 }
-                if(beta <= alpha) {
-                    /*if(nodeEntry == null || nodeEntry.depth < depth || !nodeEntry.keep) {
-                        transpositions.put(nodeHash, newEntry = new TableEntry(highestValue, depth, bestMove));
-                        newEntry.type = NodeType.BETA;
-                    }*/
-                    return highestValue;
-                }
-                //if(newEntry != null) System.out.println(newEntry.type);
+                alpha = Math.max(alpha, currentValue);
+                hasScoredMove = true;
+                if(beta <= alpha) break;
+
             }
         }
-        TableEntry newEntry;
-        /*if(nodeEntry == null || nodeEntry.depth < depth || !nodeEntry.keep) {
-            transpositions.put(nodeHash, newEntry = new TableEntry(highestValue, depth, bestMove));
-            if (highestValue < alpha) newEntry.type = NodeType.ALPHA;
-        }*/
-        return highestValue;
+        rootValue = highestValue;
+        if(bestMove != PackedMove.NO_MOVE && firstMove == 0) transpositions.store(position.getKey(), bestMove, highestValue, depth,
+                highestValue >= beta? TranspositionTable.LOWER_BOUND:
+                highestValue <= originalAlpha? TranspositionTable.UPPER_BOUND: TranspositionTable.EXACT);
+        return bestMove;
     }
 
-    /**
-     * QuiescenceSearch
-     *
-     * @author Ellie Moore
-     * @version 07.09.2020
+    /*
+     * This method starts each helper on its own copy of the root position.
      */
-    private final class QuiescenceSearch {
+    private List<Future<?>> startHelpers(final Board board, final MoveLog log, final boolean[] isRepeating,
+                                         final boolean allMovesAreExhausted, final int depthLimit){
+        final List<Future<?>> searches = new ArrayList<>(helpers.length);
+        for(final Minimax helper: helpers){
+            final SearchPosition position = new SearchPosition(board, log.getPositions());
+            helper.control = control;
+            helper.isStopped = false;
+            helper.publishedNodes = 0;
+            searches.add(helperThreads.submit(
+                    () -> helper.help(position, isRepeating, allMovesAreExhausted, depthLimit)
+            ));
+        }
+        return searches;
+    }
 
-        private final int depth;
+    /*
+     * This method sums the nodes the helpers have published so far.
+     */
+    private long helperNodes(){
+        long nodes = 0;
+        for(final Minimax helper: helpers) nodes += helper.publishedNodes;
+        return nodes;
+    }
 
-        private QuiescenceSearch(int depth){
-            this.depth = depth;
+    /*
+     * This method stops the helpers and waits for them to return, so that
+     * none is still searching when the next search begins.
+     */
+    private void stopHelpers(final List<Future<?>> searches){
+        for(final Minimax helper: helpers) helper.isStopped = true;
+        for(int i = 0; i < searches.size(); i++){
+            try {
+                searches.get(i).get();
+            } catch(final InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            } catch(final ExecutionException e){
+                throw new IllegalStateException("A helper search failed.", e.getCause());
+            }
+            stats.addHelper(helpers[i].stats);
         }
+    }
 
-        private List<Move> orderedAttackMoves(final Board board, final Move tableMove){
-            final List<Move> attackMoves = new ArrayList<>();
-            final Move foundMove = tableMove == null? MoveFactory.NULL_MOVE: MoveFactory.produce(
-                    board, tableMove.getCurrentCoordinate(), tableMove.getDestinationCoordinate()
+    /*
+     * This method runs the search of a helper, until it reaches one more
+     * than the depth limit or is stopped. Helpers with odd indices skip the
+     * first iteration, and each helper rotates the root moves by its index,
+     * so that the helpers don't all search the same nodes in step.
+     */
+    private void help(final SearchPosition position, final boolean[] isRepeating,
+                      final boolean allMovesAreExhausted, final int depthLimit){
+        final int[] rootMoves = moveBuffers[position.getPly()];
+        final int rootMoveCount = position.generateMoves(rootMoves);
+        if(rootMoveCount == 0) return;
+        ageHeuristics();
+        stats.reset();
+        completedDepth = 0;
+        hasScoredMove = false;
+        orderMoves(position, rootMoves, rootMoveCount, PackedMove.NO_MOVE);
+        final int shift = helperIndex % rootMoveCount;
+        final int[] head = Arrays.copyOf(rootMoves, shift);
+        System.arraycopy(rootMoves, shift, rootMoves, 0, rootMoveCount - shift);
+        System.arraycopy(head, 0, rootMoves, rootMoveCount - shift, shift);
+        int bestMove = PackedMove.NO_MOVE;
+        for(int iterationDepth = 1 + helperIndex % 2; iterationDepth <= depthLimit + 1 && !isStopped; iterationDepth++){
+            moveToFront(rootMoves, 0, rootMoveCount, bestMove);
+            final int move = searchRoot(
+                    position, rootMoves, 0, rootMoveCount, isRepeating, allMovesAreExhausted,
+                    iterationDepth, -INFINITY, INFINITY
             );
-            for(Move move: board.currentPlayer().getLegalMoves()){
-                if(move.isAttack() && !move.equals(foundMove)) attackMoves.add(move);
-            }
-            attackMoves.sort(ATTACK_COMPARATOR);
-            if(foundMove != MoveFactory.NULL_MOVE && foundMove.isAttack()) attackMoves.add(0, foundMove);
-            return Collections.unmodifiableList(attackMoves);
+            if(move == PackedMove.NO_MOVE || isStopped) break;
+            bestMove = move;
+            completedDepth = iterationDepth;
         }
+    }
 
-        private int min(final Board board, final int depth,
-                                 int alpha, int beta, final Move prev, final List<Move> legalAttackMoves,
-                                 long nodeHash){
-            if(depth == -this.depth || Minimax.isEndGame(board) || legalAttackMoves.isEmpty()) {
-                return evaluator.evaluate(board, depth);
-            }
-            int lowestValue = Integer.MAX_VALUE;
-            for(final Move move: legalAttackMoves){
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final long currentHash = Minimax.updateHash(nodeHash, move);
-                    final Board newBoard = moveTransition.getTransitionBoard();
-                    final int currentValue;
-                    final TableEntry foundEntry = transpositions.get(currentHash);
-                    TableEntry newEntry = null;
-                    if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                            currentValue = foundEntry.score;
-                        foundEntry.keep = true;
-                    } else {
-                        final TableEntry nodeEntry = transpositions.get(nodeHash);
-                        Move tableMove = MoveFactory.NULL_MOVE;
-                        if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-                        currentValue = max(
-                                newBoard,
-                                depth - 1, alpha, beta, move,
-                                orderedAttackMoves(newBoard, tableMove), currentHash
-                        );
-                        /*if(foundEntry == null || foundEntry.depth < depth || !foundEntry.keep) {
-                            transpositions.put(currentHash, newEntry = new TableEntry(currentValue, depth, move));
-                            if (currentValue < alpha) newEntry.type = NodeType.ALPHA;
-                        }*/
-                    }
-                    if (currentValue <= lowestValue) {
-                        lowestValue = currentValue;
-                        beta = Math.min(beta, lowestValue);
-                    }
-                    if(beta <= alpha) {
-                        //if(newEntry != null) newEntry.type = NodeType.BETA;
-                        return lowestValue;
-                    }
-                    //if(newEntry != null) System.out.println(newEntry.type);
-                }
+    /*
+     * This method finds the best move stored for the position after the
+     * given move, if it is a legal reply.
+     */
+    private int expectedReply(final SearchPosition position, final int move){
+        position.make(move);
+        final int reply = tableMove(position);
+        final boolean isLegal = position.isLegal(reply);
+        position.unmake();
+        return isLegal? reply: PackedMove.NO_MOVE;
+    }
 
+    /*
+     * This method moves a move to the front of the moves of a move buffer
+     * from the given index on, keeping the order of the others.
+     */
+    private static void moveToFront(final int[] moves, final int first, final int moveCount, final int move){
+        if(move == PackedMove.NO_MOVE) return;
+        for(int i = first; i < moveCount; i++){
+            if(moves[i] == move){
+                System.arraycopy(moves, first, moves, first + 1, i - first);
+                moves[first] = move;
+                return;
             }
-            return lowestValue;
+        }
+    }
 
+    /*
+     * This method counts a node and determines whether or not the search has
+     * run out of budget or been told to stop. The control is polled once
+     * every BUDGET_CHECK_INTERVAL nodes. The search may not run out of budget
+     * before it has scored a root move, but it may always be told to stop.
+     */
+    private boolean isOutOfBudget(){
+        if((stats.countNode() & (BUDGET_CHECK_INTERVAL - 1)) == 0) {
+            publishedNodes = stats.getNodes();
+            final boolean isOverLimit = control.count(BUDGET_CHECK_INTERVAL);
+            if(control.isStopped() || isOverLimit && hasScoredMove) isStopped = true;
         }
+        return isStopped;
+    }
 
-        private int max(final Board board, final int depth,
-                                 int alpha, int beta,
-                                 final Move prev,
-                                 final List<Move> legalAttackMoves,
-                                 long nodeHash){
-            if(depth == -this.depth || Minimax.isEndGame(board) || legalAttackMoves.isEmpty()) {
-                return evaluator.evaluate(board, depth);
+    /*
+     * This method marks the origin and destination of each of the legal
+     * moves of the position which reaches a position that occurred before.
+     */
+    static boolean[] repeatingMoves(final SearchPosition position){
+        final boolean[] isRepeating = new boolean[Utility.NUMBER_OF_TILES * Utility.NUMBER_OF_TILES];
+        final int[] moves = new int[PackedMove.MAX_MOVES];
+        final int moveCount = position.generateMoves(moves);
+        for(int i = 0; i < moveCount; i++){
+            position.make(moves[i]);
+            if(position.isRepetition()) isRepeating[fromTo(moves[i])] = true;
+            position.unmake();
+        }
+        return isRepeating;
+    }
+
+    /*
+     * This method packs the origin and destination of a move into an index.
+     */
+    static int fromTo(final int move){
+        return move & 0xFFF;
+    }
+
+    /*
+     * This method moves the captures to the front of a move buffer and returns
+     * the number of captures. The captures which don't lose material come
+     * first, most valuable victim first and then least valuable attacker
+     * first, followed by the losing captures, least losing first. If the
+     * table move is in the buffer, it leads its group.
+     */
+    int orderMoves(final SearchPosition position, final int[] moves,
+                   final int moveCount, final int tableMove){
+        int captureCount = 0;
+        for(int i = 0; i < moveCount; i++){
+            if(PackedMove.isCapture(moves[i])){
+                final int move = moves[i];
+                moves[i] = moves[captureCount];
+                moves[captureCount++] = move;
+            }
+        }
+        for(int i = 0; i < captureCount; i++){
+            final int move = moves[i];
+            final int score = captureScore(position, move);
+            int j = i - 1;
+            while(j >= 0 && moveScores[j] < score){
+                moves[j + 1] = moves[j];
+                moveScores[j + 1] = moveScores[j];
+                j--;
             }
-            int highestValue = Integer.MIN_VALUE;
-            for(final Move move: legalAttackMoves){
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final long currentHash = Minimax.updateHash(nodeHash, move);
-                    final Board newBoard = moveTransition.getTransitionBoard();
-                    final int currentValue;
-                    final TableEntry foundEntry = transpositions.get(currentHash);
-                    TableEntry newEntry = null;
-                    if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                            currentValue = foundEntry.score;
-                        foundEntry.keep = true;
-                    } else {
-                        final TableEntry nodeEntry = transpositions.get(nodeHash);
-                        Move tableMove = MoveFactory.NULL_MOVE;
-                        if(nodeEntry != null && depth == nodeEntry.depth && nodeEntry.type.isBeta()) tableMove = nodeEntry.move;
-                        currentValue = min(
-                                newBoard,
-                                depth - 1, alpha, beta, move,
-                                orderedAttackMoves(newBoard, tableMove), currentHash
-                        );
-                        /*if(foundEntry == null || foundEntry.depth < depth || !foundEntry.keep) {
-                            transpositions.put(currentHash, newEntry = new TableEntry(currentValue, depth, move));
-                            if (currentValue < alpha) newEntry.type = NodeType.ALPHA;
-                        }*/
-                    }
-                    if (currentValue >= highestValue) {
-                        highestValue = currentValue;
-                        alpha = Math.max(alpha, highestValue);
-                    }
-                    if(beta <= alpha) {
-                        //if(newEntry != null) newEntry.type = NodeType.BETA;
-                        return highestValue;
-                    }
-                    //if(newEntry != null) System.out.println(newEntry.type);
+            moves[j + 1] = move;
+            moveScores[j + 1] = score;
+        }
+        if(tableMove != PackedMove.NO_MOVE){
+            final int first = PackedMove.isCapture(tableMove)? 0: captureCount;
+            for(int i = first; i < moveCount; i++){
+                if(moves[i] == tableMove){
+                    System.arraycopy(moves, first, moves, first + 1, i - first);
+                    moves[first] = tableMove;
+                    break;
                 }
             }
-            return highestValue;
+        }
+        return captureCount;
+    }
+
+    /*
+     * This method records a quiet move which caused a cutoff as a killer of
+     * its ply, as the counter move of the move before it, and in its history.
+     */
+    private void recordCutoff(final SearchPosition position, final int move, final int depth){
+        final int[] killers = this.killers[position.getPly()];
+        if(killers[0] != move){
+            System.arraycopy(killers, 0, killers, 1, KILLERS_PER_PLY - 1);
+            killers[0] = move;
+        }
+        final int lastMove = position.getLastMove();
+        if(lastMove != PackedMove.NO_MOVE) counterMoves[fromTo(lastMove)] = move;
+        final int[] history = this.history[position.getSideToMove()];
+        history[fromTo(move)] += depth * depth;
+        if(history[fromTo(move)] >= HISTORY_LIMIT) for(final int[] sideHistory: this.history)
+            for(int i = 0; i < sideHistory.length; i++) sideHistory[i] >>= 1;
+    }
+
+    /*
+     * This method readies the move ordering heuristics for a new search. The
+     * killers belong to the plies of the last search, so they are cleared,
+     * and the history is halved, so that newer cutoffs count for more.
+     */
+    private void ageHeuristics(){
+        for(final int[] plyKillers: killers) Arrays.fill(plyKillers, PackedMove.NO_MOVE);
+        for(final int[] sideHistory: history)
+            for(int i = 0; i < sideHistory.length; i++) sideHistory[i] >>= 1;
+    }
+
+    private static int victimValue(final SearchPosition position, final int move){
+        final int victim = position.getCapturedPiece(move);
+        return victim == SearchPosition.NO_PIECE? 0: SearchPosition.pieceValue(victim);
+    }
+
+    private static int attackerValue(final SearchPosition position, final int move){
+        return SearchPosition.pieceValue(position.getPiece(PackedMove.from(move)));
+    }
+
+    /*
+     * This method scores a capture for ordering. A capture which doesn't lose
+     * material scores by MVV-LVA, and a losing capture scores its loss, which
+     * is below every MVV-LVA score.
+     */
+    private static int captureScore(final SearchPosition position, final int move){
+        final int victimValue = victimValue(position, move);
+        if(victimValue >= attackerValue(position, move)) return mvvLva(position, move, victimValue);
+        final int exchange = position.see(move);
+        return exchange < 0? exchange: mvvLva(position, move, victimValue);
+    }
+
+    private static int mvvLva(final SearchPosition position, final int move, final int victimValue){
+        return victimValue * MVV_LVA_SCALE - position.getPiece(PackedMove.from(move)) % 6;
+    }
+
+    /*
+     * This method determines whether or not a capture or a promotion loses
+     * material. Only a move which takes a piece worth less than the moving
+     * piece, or nothing at all, may lose, so only such a move needs the
+     * exchange evaluated.
+     */
+    private static boolean isLosingCapture(final SearchPosition position, final int move){
+        return victimValue(position, move) < attackerValue(position, move) && position.see(move) < 0;
+    }
+
+    /*
+     * This method looks up the best move stored for the position.
+     */
+    int tableMove(final SearchPosition position){
+        return TranspositionTable.move(transpositions.probe(position.getKey()));
+    }
 
+    /*
+     * This method determines whether or not a table entry of at least the
+     * given depth settles the score of its position within a window.
+     */
+    private static boolean isCutoff(final long entry, final int depth, final int alpha, final int beta){
+        if(entry == TranspositionTable.NO_ENTRY || TranspositionTable.depth(entry) < depth) return false;
+        final int score = TranspositionTable.score(entry, depth);
+        switch(TranspositionTable.bound(entry)){
+            case TranspositionTable.EXACT: return true;
+            case TranspositionTable.LOWER_BOUND: return score >= beta;
+            default: return score <= alpha;
         }
+    }
+
+    /*
+     * This method determines how many plies a null move search is reduced by.
+     */
+    private static int nullMoveReduction(final int depth){
+        return depth > 6? 3: 2;
+    }
 
+    /*
+     * This method determines how many plies the search of a late quiet move
+     * is reduced by. The later the move and the deeper the search, the more
+     * it is reduced, but the reduced search always has at least one ply.
+     */
+    private static int lateMoveReduction(final int depth, final int moveIndex){
+        final int reduction = moveIndex >= 2 * REDUCTION_MIN_MOVE_INDEX && depth >= 6? 2: 1;
+        return Math.min(reduction, depth - 2);
+    }
+
+    /*
+     * This method evaluates a position from the point of view of its side to move.
+     */
+    private int evaluate(final SearchPosition position, final int depth, final boolean hasLegalMoves){
+        final int score = evaluator.evaluate(position, depth, hasLegalMoves);
+        return position.isWhiteToMove()? score: -score;
+    }
+
+    /*
+     * This method scores a position from the point of view of its side to
+     * move, with a negamax alpha-beta search to the given depth. A line as
+     * long as a search position can hold is cut off with the static value.
+     */
+    int search(final SearchPosition position, final int depth, int alpha, final int beta){
+        if(depth <= 0) return quiescenceSearch.search(position, 0, alpha, beta);
+        if(isOutOfBudget()) return 0;
+        if(position.getPly() >= SearchPosition.MAX_PLY - 1) return evaluate(position, depth, true);
+        if(position.isRepetition()) return DRAW_SCORE;
+        final long key = position.getKey();
+        final long entry = transpositions.probe(key);
+        stats.countProbe(entry != TranspositionTable.NO_ENTRY);
+        if(isCutoff(entry, depth, alpha, beta)) return TranspositionTable.score(entry, depth);
+        final boolean isInCheck = depth >= REDUCTION_MIN_DEPTH && position.isInCheck();
+
+        /*
+         * Null-move pruning: outside of the principal variation, let the opponent move
+         * twice in a row. If a reduced search still fails high, then a real move would
+         * too. Never pass in check, twice in a row, or without a piece to move other
+         * than pawns and the king, where passing may be better than any move.
+         */
+        final boolean isNullWindow = beta - alpha == 1;
+        if(isNullMovePruning && isNullWindow && depth >= REDUCTION_MIN_DEPTH && !isInCheck &&
+                !position.isAfterNullMove() && position.hasNonPawnMaterial(position.getSideToMove())) {
+            position.makeNullMove();
+            final int nullValue = -search(
+                    position, Math.max(depth - 1 - nullMoveReduction(depth), 0), -beta, -beta + 1
+            );
+            position.unmakeNullMove();
+            if(isStopped) return 0;
+            if(nullValue >= beta) return beta;
+        }
+
+        /*
+         * Pick the moves one at a time, generating and sorting each group of them only
+         * once the moves picked before have failed to cut the node off.
+         */
+        final MovePicker picker = pickers[position.getPly()];
+        picker.reset(position, TranspositionTable.move(entry));
+        final int originalAlpha = alpha;
+        int highestValue = -INFINITY;
+        int bestMove = PackedMove.NO_MOVE;
+        for(int i = 0, move = picker.next(); move != PackedMove.NO_MOVE; i++, move = picker.next()){
+            position.make(move);
+            final boolean isCapture = PackedMove.isCapture(move);
+            int currentValue;
+            if(i == 0) currentValue = -search(position, depth - 1, -beta, -alpha);
+            else {
+
+                /*
+                 * Late move reductions: a quiet move ordered late is unlikely to be best,
+                 * so search it less deeply first. If it fails high anyway, search it again
+                 * to the full depth.
+                 */
+                final int reduction = isLateMoveReductions && !isInCheck && !isCapture &&
+                        i >= REDUCTION_MIN_MOVE_INDEX && depth >= REDUCTION_MIN_DEPTH &&
+                        !PackedMove.isPromotion(move) && !position.isInCheck()?
+                        lateMoveReduction(depth, i): 0;
+                currentValue = -search(position, depth - 1 - reduction, -alpha - 1, -alpha);
+                if(reduction != 0 && currentValue > alpha)
+                    currentValue = -search(position, depth - 1, -alpha - 1, -alpha);
+                if(currentValue > alpha && currentValue < beta)
+                    currentValue = -search(position, depth - 1, -beta, -alpha);
+            }
+            position.unmake();
+            if(isStopped) return 0;
+            if(currentValue >= highestValue){
+                highestValue = currentValue;
+                bestMove = move;
+                alpha = Math.max(alpha, highestValue);
+            }
+            if(beta <= alpha) {
+                stats.countCutoff(i == 0);
+                if(!isCapture && !PackedMove.isPromotion(move)) recordCutoff(position, move, depth);
+                transpositions.store(key, bestMove, highestValue, depth, TranspositionTable.LOWER_BOUND);
+                return highestValue;
+            }
+        }
+        if(bestMove == PackedMove.NO_MOVE) return evaluate(position, depth, false);
+        transpositions.store(key, bestMove, highestValue, depth, highestValue <= originalAlpha?
+                TranspositionTable.UPPER_BOUND: TranspositionTable.EXACT);
+        return highestValue;
     }
 
     /**
-     * Promotion Search
+     * Move Picker
      *
-     * @author Ellie Moore
-     * @version 07.09.2020
+     * <p>
+     * A staged move picker for one ply of the main search. It hands out the
+     * moves of a node one at a time, and generates and sorts each group of
+     * them only when the node gets that far. The table move comes first,
+     * checked for legality without generating anything else. Then the
+     * captures are generated, and those which don't lose material are picked
+     * best first, by MVV-LVA and the static exchange. Then come the killers
+     * and the counter move, each checked for legality, then the quiet moves
+     * by history, and last the losing captures. A node cut off by its table
+     * move generates nothing, and one cut off by a capture never generates
+     * its quiet moves.
      */
-    public final class PromotionSearch {
+    private final class MovePicker {
 
-        private final int depth;
+        /**
+         * The stages of the picker, in order.
+         */
+        private static final int TABLE_MOVE = 0;
+        private static final int GENERATE_CAPTURES = 1;
+        private static final int GOOD_CAPTURES = 2;
+        private static final int REFUTATIONS = 3;
+        private static final int GENERATE_QUIET_MOVES = 4;
+        private static final int QUIET_MOVES = 5;
+        private static final int BAD_CAPTURES = 6;
+        private static final int DONE = 7;
+
+        /**
+         * The move buffer of the ply, holding the captures and then the
+         * quiet moves, and their ordering scores.
+         */
+        private final int[] moves;
+        private final int[] scores;
 
-        public PromotionSearch(final int depth){
-            this.depth = depth;
+        /**
+         * The killers and the counter move of the node.
+         */
+        private final int[] refutations;
+        private int refutationCount;
+
+        private SearchPosition position;
+        private int tableMove;
+        private int stage;
+        private int index;
+        private int captureCount;
+        private int moveCount;
+        private int badCaptureIndex;
+
+        private MovePicker(final int[] moves){
+            this.moves = moves;
+            this.scores = new int[PackedMove.MAX_MOVES];
+            this.refutations = new int[KILLERS_PER_PLY + 1];
         }
 
-        private Collection<Move> attackOnPawnMoves(final Board board){
-            final List<Move> attackOnPawnMoves = new ArrayList<>();
-            for(Move move: board.currentPlayer().getLegalMoves()){
-                if(move.isAttack() && move.getAttackedPiece().getPieceType().isPawn()) attackOnPawnMoves.add(move);
-            }
-            return attackOnPawnMoves;
+        /*
+         * This method readies the picker for a new node.
+         */
+        private void reset(final SearchPosition position, final int tableMove){
+            this.position = position;
+            this.tableMove = tableMove;
+            this.stage = TABLE_MOVE;
         }
 
-        private Collection<Move> orderedPawnMoves(final Board board){
-            final List<Move> pawnAttackMoves = new ArrayList<>();
-            final List<Move> pawnMoves = new ArrayList<>();
-            for(Move move: board.currentPlayer().getLegalMoves()){
-                if(move.getMovedPiece().getPieceType().isPawn()){
-                    if(move.isAttack()) pawnAttackMoves.add(move);
-                    else pawnMoves.add(move);
+        /*
+         * This method picks the next move of the node, or no move once every
+         * legal move has been picked.
+         */
+        private int next(){
+            while(true){
+                switch(stage){
+                    case TABLE_MOVE:
+                        stage = GENERATE_CAPTURES;
+                        if(tableMove != PackedMove.NO_MOVE && position.isLegal(tableMove)) return tableMove;
+                        break;
+                    case GENERATE_CAPTURES:
+                        captureCount = position.generateCaptures(moves, 0);
+                        for(int i = 0; i < captureCount; i++) scores[i] = captureScore(position, moves[i]);
+                        index = 0;
+                        stage = GOOD_CAPTURES;
+                        break;
+                    case GOOD_CAPTURES:
+                        while(index < captureCount){
+                            pickBestCapture();
+                            if(scores[index] < 0) break;
+                            final int move = moves[index++];
+                            if(move != tableMove) return move;
+                        }
+                        badCaptureIndex = index;
+                        findRefutations();
+                        index = 0;
+                        stage = REFUTATIONS;
+                        break;
+                    case REFUTATIONS:
+                        while(index < refutationCount){
+                            final int move = refutations[index++];
+                            if(position.isLegal(move)) return move;
+                        }
+                        stage = GENERATE_QUIET_MOVES;
+                        break;
+                    case GENERATE_QUIET_MOVES:
+                        moveCount = position.generateQuietMoves(moves, captureCount);
+                        sortQuietMoves();
+                        index = captureCount;
+                        stage = QUIET_MOVES;
+                        break;
+                    case QUIET_MOVES:
+                        while(index < moveCount){
+                            final int move = moves[index++];
+                            if(move != tableMove && !isRefutation(move)) return move;
+                        }
+                        index = badCaptureIndex;
+                        stage = BAD_CAPTURES;
+                        break;
+                    case BAD_CAPTURES:
+                        while(index < captureCount){
+                            pickBestCapture();
+                            final int move = moves[index++];
+                            if(move != tableMove) return move;
+                        }
+                        stage = DONE;
+                        break;
+                    default:
+                        return PackedMove.NO_MOVE;
                 }
             }
-            pawnAttackMoves.sort(ATTACK_COMPARATOR);
-            return Utility.concat(pawnAttackMoves, pawnMoves);
         }
 
-        private int min(final Board board, final int depth,
-                        int alpha, int beta, final Move prev, final Collection<Move> moves,
-                        long prevHash, final Player initiator, final boolean isDefensive){
-            if(depth == -this.depth || Minimax.isEndGame(board) || initiator.hasPromoted()) {
-                return evaluator.evaluate(board, depth);
-            }
-            int lowestValue = Integer.MAX_VALUE;
-            for(final Move move: moves){
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final long currentHash = Minimax.updateHash(prevHash, move);
-                    final Board newBoard = moveTransition.getTransitionBoard();
-                    final int currentValue;
-                    final TableEntry foundEntry = transpositions.get(currentHash);
-                    if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                        currentValue = foundEntry.score;
-                        foundEntry.keep = true;
-                    } else {
-                        currentValue = max(
-                                newBoard,
-                                depth - 1, alpha, beta, move,
-                                isDefensive? orderedPawnMoves(newBoard): attackOnPawnMoves(newBoard), currentHash, initiator, !isDefensive
-                        );
-                        /*if(foundEntry == null || foundEntry.depth > depth) transpositions.put(
-                                currentHash, new TableEntry(currentValue, depth, move)
-                        );*/
-                    }
-                    if (currentValue <= lowestValue) {
-                        lowestValue = currentValue;
-                        beta = Math.min(beta, lowestValue);
-                    }
-                    if(beta <= alpha) {
-                        //transpositions.get(currentHash).type = NodeType.BETA;
-                        return lowestValue;
-                    }
+        /*
+         * This method swaps the best of the captures left to the index.
+         */
+        private void pickBestCapture(){
+            int best = index;
+            for(int i = index + 1; i < captureCount; i++) if(scores[i] > scores[best]) best = i;
+            final int move = moves[best];
+            final int score = scores[best];
+            moves[best] = moves[index];
+            scores[best] = scores[index];
+            moves[index] = move;
+            scores[index] = score;
+        }
 
-                }
+        /*
+         * This method gathers the killers of the ply and the counter move of
+         * the last move, leaving out captures, the table move and duplicates.
+         * Their legality is checked as they are picked.
+         */
+        private void findRefutations(){
+            refutationCount = 0;
+            final int[] killers = Minimax.this.killers[position.getPly()];
+            for(int k = 0; k < KILLERS_PER_PLY; k++) addRefutation(killers[k]);
+            final int lastMove = position.getLastMove();
+            if(lastMove != PackedMove.NO_MOVE) addRefutation(counterMoves[fromTo(lastMove)]);
+        }
+
+        private void addRefutation(final int move){
+            if(move == PackedMove.NO_MOVE || move == tableMove || PackedMove.isCapture(move) || isRefutation(move))
+                return;
+            refutations[refutationCount++] = move;
+        }
 
+        private boolean isRefutation(final int move){
+            for(int i = 0; i < refutationCount; i++) if(refutations[i] == move) return true;
+            return false;
+        }
+
+        /*
+         * This method sorts the quiet moves by history.
+         */
+        private void sortQuietMoves(){
+            final int[] history = Minimax.this.history[position.getSideToMove()];
+            for(int i = captureCount; i < moveCount; i++){
+                final int move = moves[i];
+                final int score = history[fromTo(move)];
+                int j = i - 1;
+                while(j >= captureCount && scores[j] < score){
+                    moves[j + 1] = moves[j];
+                    scores[j + 1] = scores[j];
+                    j--;
+                }
+                moves[j + 1] = move;
+                scores[j + 1] = score;
             }
-            return lowestValue;
+        }
 
+    }
+
+    /**
+     * QuiescenceSearch
+     *
+     * @author Ellie Moore
+     * @version 07.09.2020
+     */
+    private final class QuiescenceSearch {
+
+        private final int depth;
+
+        private QuiescenceSearch(int depth){
+            this.depth = depth;
         }
 
-        private int max(final Board board, final int depth,
-                        int alpha, int beta,
-                        final Move prev,
-                        final Collection<Move> moves,
-                        long prevHash, final Player initiator, final boolean isDefensive){
-            if(depth == -this.depth || Minimax.isEndGame(board) || initiator.hasPromoted()) {
-                return evaluator.evaluate(board, depth);
+        /*
+         * This method scores a position by searching its captures and
+         * promotions until the position is quiet. The side to move may stand
+         * pat on the static value of the position instead, so the static
+         * value is a lower bound on the score, and a position whose static
+         * value reaches beta is cut off before any move is generated. Only
+         * then are the captures and promotions generated, so a stand-pat
+         * position is taken to have a legal move, and a stalemate is left to
+         * the main search. Moves which lose material are pruned, and so are
+         * moves which could not raise the static value to alpha even with
+         * the whole value of their victim and promotion (delta pruning). A
+         * side in check may not stand pat, so it generates and searches all
+         * of its evasions instead. Positions are evaluated at depth 0, so
+         * that a mate found here counts for less than a mate found in the
+         * main search.
+         */
+        private int search(final SearchPosition position, final int depth, int alpha, final int beta){
+            if(isOutOfBudget()) return 0;
+            stats.countQuiescenceNode();
+            if(position.getPly() >= SearchPosition.MAX_PLY - 1) return Minimax.this.evaluate(position, 0, true);
+            final boolean isInCheck = position.isInCheck();
+            final int[] moves = moveBuffers[position.getPly()];
+            int highestValue = -INFINITY;
+            int staticValue = 0;
+            final int moveCount;
+            if(isInCheck) {
+                moveCount = position.generateMoves(moves);
+                if(moveCount == 0 || depth == -this.depth)
+                    return Minimax.this.evaluate(position, 0, moveCount != 0);
+            } else {
+                staticValue = Minimax.this.evaluate(position, 0, true);
+                if(staticValue >= beta || depth == -this.depth) return staticValue;
+                highestValue = staticValue;
+                alpha = Math.max(alpha, staticValue);
+                moveCount = position.generateCapturesAndPromotions(moves, 0);
             }
-            int highestValue = Integer.MIN_VALUE;
-            for(final Move move: moves){
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move, true);
-                if (moveTransition.getMoveStatus().isDone()) {
-                    final long currentHash = Minimax.updateHash(prevHash, move);
-                    final Board newBoard = moveTransition.getTransitionBoard();
-                    final int currentValue;
-                    final TableEntry foundEntry = transpositions.get(currentHash);
-                    if(foundEntry != null && foundEntry.depth == depth && foundEntry.type.isExact()) {
-                        currentValue = foundEntry.score;
-                        foundEntry.keep = true;
-                    } else {
-                        currentValue = min(
-                                newBoard,
-                                depth - 1, alpha, beta, move,
-                                isDefensive? orderedPawnMoves(newBoard): attackOnPawnMoves(newBoard), currentHash, initiator , !isDefensive
-                        );
-                        /*if(foundEntry == null || foundEntry.depth > depth) transpositions.put(
-                                currentHash, new TableEntry(currentValue, depth, move)
-                        );*/
-                    }
-                    if (currentValue >= highestValue) {
-                        highestValue = currentValue;
-                        alpha = Math.max(alpha, highestValue);
-                    }
-                    if(beta <= alpha) {
-                        //transpositions.get(currentHash).type = NodeType.BETA;
-                        return highestValue;
-                    }
+            orderMoves(position, moves, moveCount, tableMove(position));
+            for(int i = 0; i < moveCount; i++){
+                final int move = moves[i];
+                if(!isInCheck) {
+                    int gain = victimValue(position, move);
+                    if(PackedMove.isPromotion(move))
+                        gain += SearchPosition.pieceValue(PackedMove.promotionPiece(move)) -
+                                SearchPosition.pieceValue(SearchPosition.PAWN);
+                    if(staticValue + gain + DELTA_MARGIN <= alpha || isLosingCapture(position, move)) continue;
+                }
+                position.make(move);
+                final int currentValue = -search(position, depth - 1, -beta, -alpha);
+                position.unmake();
+                if(isStopped) return 0;
+                if (currentValue >= highestValue) {
+                    highestValue = currentValue;
+                    alpha = Math.max(alpha, highestValue);
                 }
+                if(beta <= alpha) return highestValue;
             }
             return highestValue;
 
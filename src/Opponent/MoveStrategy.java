@@ -6,6 +6,21 @@ import GUI.MoveLog;
 
 public interface MoveStrategy {
 
-    Move execute(Board board, MoveLog log, boolean allMovesAreExhausted);
+    default Move execute(Board board, MoveLog log, boolean allMovesAreExhausted) {
+        return execute(board, log, allMovesAreExhausted, SearchControl.unlimited());
+    }
+
+    /**
+     * A method to choose a move under the limits of a {@code SearchControl}.
+     * A caller may stop the search through the control at any time, and still
+     * receive the best move found so far.
+     *
+     * @param board the {@code Board} to choose a move on
+     * @param log the {@code MoveLog} of the game
+     * @param allMovesAreExhausted whether or not moves which repeat the log may be chosen
+     * @param control the limits and stop flag of the search
+     * @return the chosen move, or {@code MoveFactory.NULL_MOVE} if the side to move has no legal move
+     */
+    Move execute(Board board, MoveLog log, boolean allMovesAreExhausted, SearchControl control);
 
 }
@@ -0,0 +1,485 @@
+package Opponent;
+
+import Engine.Board.Board;
+import Engine.Board.Move;
+import Engine.Board.Move.MoveFactory;
+import Engine.Board.PackedMove;
+import Engine.Board.RepetitionHistory;
+import Engine.Board.SearchPosition;
+import GUI.MoveLog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel Minimax
+ *
+ * <p>
+ * A {@code MoveStrategy} which spreads the search of {@link Minimax} across a
+ * {@code ForkJoinPool}. Once the first move of a node has been searched, the
+ * node has a good bound in alpha, and the rest of its moves may be searched
+ * independently of one another with that bound. So at each node of the
+ * principal variation, the first move (the move of the principal variation)
+ * is searched serially, and the remaining moves are then forked as tasks of
+ * their own, to be searched in parallel and stolen by idle threads.
+ *
+ * <p>
+ * Splitting happens along the principal variation only, from the root down
+ * to {@code MIN_SPLIT_DEPTH} plies from the horizon. Below that, or off the
+ * principal variation, each task runs the serial {@code Minimax} search,
+ * where a split would cost more than it saves. Every thread searches with a
+ * worker of its own, and the workers share one transposition table.
+ *
+ * <p>
+ * Like {@code Minimax}, the search deepens iteratively, so that the first
+ * move of every node on the principal variation comes from the last
+ * iteration, and it may be limited or stopped through a
+ * {@code SearchControl}, which every worker polls.
+ */
+public final class ParallelMinimax implements MoveStrategy {
+
+    /**
+     * The smallest remaining depth at which a node of the principal variation
+     * is split.
+     */
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    /**
+     * A score greater than any evaluation.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    /**
+     * The serial search, which holds the depths and the shared transposition
+     * table.
+     */
+    private final Minimax minimax;
+
+    /**
+     * The pool which runs the search.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The worker of each thread of the pool.
+     */
+    private final ThreadLocal<Minimax> workers;
+
+    /**
+     * Every worker created, so that their stats can be added up.
+     */
+    private final List<Minimax> workerList;
+
+    /**
+     * The listeners to the progress of each search.
+     */
+    private final List<SearchListener> listeners;
+
+    /**
+     * A {@code List} of execution times for use in debugging and calculating
+     * the average execution time.
+     */
+    private final ArrayList<Double> executionTimes;
+
+    /**
+     * The limits and stop flag of the current search.
+     */
+    private SearchControl control;
+
+    /**
+     * The positions of the game of the current search.
+     */
+    private RepetitionHistory history;
+
+    /**
+     * A public constructor for {@code ParallelMinimax} which uses every
+     * available processor.
+     *
+     * @param depth the depth of the search.
+     */
+    public ParallelMinimax(final int depth,
+                           final int quiescenceDepth){
+        this(depth, quiescenceDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * A public constructor for {@code ParallelMinimax}.
+     *
+     * @param depth the depth of the search.
+     * @param parallelism the number of threads in the pool
+     */
+    public ParallelMinimax(final int depth,
+                           final int quiescenceDepth,
+                           final int parallelism){
+        this.minimax = new Minimax(depth, quiescenceDepth);
+        this.pool = new ForkJoinPool(parallelism);
+        this.workerList = new CopyOnWriteArrayList<>();
+        this.workers = ThreadLocal.withInitial(() -> {
+            final Minimax worker = minimax.newWorker();
+            workerList.add(worker);
+            return worker;
+        });
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.executionTimes = new ArrayList<>();
+    }
+
+    /**
+     * Exposes the depth.
+     *
+     * @return the depth
+     */
+    public int getDepth(){
+        return minimax.getDepth();
+    }
+
+    /**
+     * A method to calculate the average execution time.
+     *
+     * @return the average execution time.
+     */
+    public double getAverageExecutionTime(){
+        double sum = 0.0;
+        for(double d: executionTimes){
+            sum += d;
+        }
+        return executionTimes.isEmpty()? 0: sum/executionTimes.size();
+    }
+
+    /**
+     * A method to add a listener to the progress of each search.
+     *
+     * @param listener the {@code SearchListener} to add
+     */
+    public void addSearchListener(final SearchListener listener){
+        listeners.add(listener);
+    }
+
+    /**
+     * A method to remove a listener to the progress of each search.
+     *
+     * @param listener the {@code SearchListener} to remove
+     */
+    public void removeSearchListener(final SearchListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * A method to release the threads of the pool.
+     */
+    public void shutdown(){
+        pool.shutdownNow();
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public String toString(){
+        return "Parallel Minimax";
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public Move execute(Board board, MoveLog log, boolean allMovesAreExhausted, SearchControl control) {
+
+        // Age the entries of earlier searches, rather than discarding them.
+        minimax.getTranspositionTable().newSearch();
+
+        // Print depth and number of moves to terminal/console.
+        final int depthLimit = control.getDepthLimit(getDepth());
+        System.out.println(board.currentPlayer() + " thinking with depth = " + depthLimit +
+                " on " + pool.getParallelism() + " threads");
+        System.out.println("Considering " + board.currentPlayer().getLegalMoves().size() + " moves.");
+
+        // Record start time.
+        final long startTime = System.currentTimeMillis();
+
+        // Find the moves which would repeat a position of the game.
+        history = log.getPositions();
+        if(board.currentPlayer().getLegalMoves().isEmpty()) return MoveFactory.NULL_MOVE;
+        final boolean[] isRepeating = Minimax.repeatingMoves(new SearchPosition(board, history));
+
+        // Start the clock and the stats of the search.
+        this.control = control;
+        control.start();
+        final SearchStats stats = control.getStats();
+        stats.reset();
+
+        /*
+         * Search the root to each depth in turn, until the depth limit is reached or the
+         * search is stopped. An unfinished iteration is discarded, unless it is the first.
+         */
+        int bestMove = PackedMove.NO_MOVE;
+        for(int iterationDepth = 1; iterationDepth <= depthLimit; iterationDepth++){
+            final RootTask root = new RootTask(board, isRepeating, allMovesAreExhausted, iterationDepth);
+            final int move = pool.invoke(root);
+            collectStats(stats);
+            if(move == PackedMove.NO_MOVE) break;
+            final boolean isExhausted = control.isExhausted();
+            if(isExhausted && bestMove != PackedMove.NO_MOVE) break;
+            bestMove = move;
+            if(isExhausted) break;
+            stats.completeIteration(iterationDepth, 0);
+            for(final SearchListener listener: listeners) listener.iterationCompleted(stats);
+
+            // Stop once a forced mate is proven. A deeper iteration would only prove it again.
+            if(BoardEvaluator.isMateScore(root.getValue())) break;
+
+            // Don't start an iteration which could not finish in the time left.
+            if(!control.hasTimeForIteration()) break;
+        }
+
+        // If a best move isn't found, try again. But this time include
+        // all moves, even those which repeat a position of the game.
+        if(bestMove == PackedMove.NO_MOVE && !allMovesAreExhausted) return execute(board, log, true, control);
+
+        // Calculate and stow execution time.
+        final double time = ((double)(System.currentTimeMillis() - startTime))/1000.0;
+        executionTimes.add(time);
+
+        // Print execution time and stats to terminal/console.
+        stats.complete(minimax.getTranspositionTable().hashfull());
+        System.out.println(String.format("%.2f seconds", time));
+        System.out.println(stats);
+
+        // Convert the best move into a Move for the caller.
+        final Move move = MoveFactory.produce(board, bestMove);
+        for(final SearchListener listener: listeners) listener.searchCompleted(move, stats);
+        return move;
+
+    }
+
+    /*
+     * This method adds the stats of every worker to the stats of the search,
+     * and empties them. The pool must be idle.
+     */
+    private void collectStats(final SearchStats stats){
+        for(final Minimax worker: workerList){
+            stats.add(worker.getStats());
+            worker.getStats().reset();
+        }
+    }
+
+    /*
+     * This method hands the worker of the current thread the control of the
+     * current search.
+     */
+    private Minimax worker(){
+        final Minimax worker = workers.get();
+        worker.setControl(control);
+        return worker;
+    }
+
+    /*
+     * This method copies the root position and plays the given moves on it.
+     * Each task searches a copy of its own.
+     */
+    private SearchPosition replay(final Board board, final int[] path){
+        final SearchPosition position = new SearchPosition(board, history);
+        for(final int move: path) position.make(move);
+        return position;
+    }
+
+    /*
+     * This method appends a move to a path of moves from the root.
+     */
+    private static int[] extend(final int[] path, final int move){
+        final int[] extended = Arrays.copyOf(path, path.length + 1);
+        extended[path.length] = move;
+        return extended;
+    }
+
+    /*
+     * This method scores a node of the principal variation from the point of
+     * view of its side to move. The first move is searched serially, as the
+     * next node of the principal variation, and the rest are forked with the
+     * bound it establishes. The moves are generated into an array of the node's
+     * own, since the worker of this thread may search a stolen task while this
+     * node waits for its children. Once the search is stopped, the scores of
+     * the children may be cut short, so the node returns at once without
+     * storing anything.
+     */
+    private int searchPV(final Board board, final SearchPosition position, final int[] path,
+                         final int depth, int alpha, final int beta){
+        final Minimax worker = worker();
+        if(depth < MIN_SPLIT_DEPTH) return worker.search(position, depth, alpha, beta);
+        final int[] moves = new int[PackedMove.MAX_MOVES];
+        final int moveCount = position.generateMoves(moves);
+        if(moveCount == 0) return worker.search(position, depth, alpha, beta);
+        worker.orderMoves(position, moves, moveCount, worker.tableMove(position));
+        final int originalAlpha = alpha;
+        final int firstMove = moves[0];
+        position.make(firstMove);
+        int highestValue = -searchPV(
+                board, position, extend(path, firstMove), depth - 1, -beta, -alpha
+        );
+        position.unmake();
+        if(control.isExhausted()) return 0;
+        int bestMove = firstMove;
+        alpha = Math.max(alpha, highestValue);
+        if(alpha < beta){
+            final List<MoveTask> tasks = new ArrayList<>(moveCount - 1);
+            for(int i = 1; i < moveCount; i++)
+                tasks.add(new MoveTask(board, extend(path, moves[i]), depth - 1, alpha, beta));
+            RecursiveTask.invokeAll(tasks);
+            if(control.isExhausted()) return 0;
+            for(final MoveTask task: tasks){
+                final int currentValue = task.join();
+                if(currentValue > highestValue){
+                    highestValue = currentValue;
+                    bestMove = task.getMove();
+                }
+            }
+        }
+        minimax.getTranspositionTable().store(position.getKey(), bestMove, highestValue, depth,
+                highestValue >= beta? TranspositionTable.LOWER_BOUND:
+                highestValue <= originalAlpha? TranspositionTable.UPPER_BOUND: TranspositionTable.EXACT);
+        return highestValue;
+    }
+
+    /**
+     * Root Task
+     *
+     * <p>
+     * The search of the root to one depth, which returns the best move, or no
+     * move if every move repeats. The first move which does not repeat is
+     * searched serially, and the rest are forked with the bound it
+     * establishes. If the search is stopped, only the moves whose searches
+     * completed are compared, and nothing is stored.
+     */
+    private final class RootTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final boolean[] isRepeating;
+        private final boolean allMovesAreExhausted;
+        private final int depth;
+        private int value;
+
+        private RootTask(final Board board, final boolean[] isRepeating,
+                         final boolean allMovesAreExhausted, final int depth){
+            this.board = board;
+            this.isRepeating = isRepeating;
+            this.allMovesAreExhausted = allMovesAreExhausted;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Integer compute(){
+            final SearchPosition position = new SearchPosition(board, history);
+            final int[] moves = new int[PackedMove.MAX_MOVES];
+            int moveCount = position.generateMoves(moves);
+            final Minimax worker = worker();
+            worker.orderMoves(position, moves, moveCount, worker.tableMove(position));
+
+            // Drop the moves which repeat a move made recently in the game.
+            if(!allMovesAreExhausted && moveCount > 1) {
+                int kept = 0;
+                for(int i = 0; i < moveCount; i++)
+                    if(!isRepeating[Minimax.fromTo(moves[i])]) moves[kept++] = moves[i];
+                moveCount = kept;
+            }
+            if(moveCount == 0) return PackedMove.NO_MOVE;
+
+            // Search the first move serially, along the principal variation.
+            final int firstMove = moves[0];
+            position.make(firstMove);
+            int alpha = -searchPV(board, position, new int[]{firstMove}, depth - 1, -INFINITY, INFINITY);
+            position.unmake();
+            int bestMove = firstMove;
+            value = alpha;
+            if(control.isExhausted()) return bestMove;
+
+            // Search the rest in parallel with the bound of the first.
+            final List<MoveTask> tasks = new ArrayList<>(moveCount - 1);
+            for(int i = 1; i < moveCount; i++)
+                tasks.add(new MoveTask(board, new int[]{moves[i]}, depth - 1, alpha, INFINITY));
+            for(final MoveTask task: RecursiveTask.invokeAll(tasks)){
+                final int currentValue = task.join();
+                if(task.isComplete() && currentValue > alpha){
+                    alpha = currentValue;
+                    bestMove = task.getMove();
+                }
+            }
+            value = alpha;
+
+            /*
+             * The siblings were searched against the bound of the first move, not against
+             * each other, so the score is only known to be a lower bound.
+             */
+            if(!control.isExhausted()) minimax.getTranspositionTable().store(
+                    position.getKey(), bestMove, alpha, depth, TranspositionTable.LOWER_BOUND
+            );
+            return bestMove;
+        }
+
+        /**
+         * Exposes the score of the best move, from the point of view of the
+         * side to move.
+         *
+         * @return the score of the best move
+         */
+        private int getValue(){
+            return this.value;
+        }
+
+    }
+
+    /**
+     * Move Task
+     *
+     * <p>
+     * The serial search of one move, which returns the score of the move from
+     * the point of view of the side which plays it. The move is searched with
+     * a null window first, and again with the full window only if it turns
+     * out to be better than alpha. A score is complete only if the search
+     * was not stopped before it returned.
+     */
+    private final class MoveTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int[] path;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private boolean isComplete;
+
+        private MoveTask(final Board board, final int[] path, final int depth,
+                         final int alpha, final int beta){
+            this.board = board;
+            this.path = path;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        private int getMove(){
+            return path[path.length - 1];
+        }
+
+        private boolean isComplete(){
+            return isComplete;
+        }
+
+        @Override
+        protected Integer compute(){
+            final SearchPosition position = replay(board, path);
+            final Minimax worker = worker();
+            int value = -worker.search(position, depth, -alpha - 1, -alpha);
+            if(value > alpha && value < beta) value = -worker.search(position, depth, -beta, -alpha);
+            isComplete = !control.isExhausted();
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package Opponent;
+
+import Engine.Board.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Principal Variation
+ *
+ * <p>
+ * One ranked line of a search: a root move, its score, and the moves the
+ * search expects to follow it. In multi-PV mode, the search reports one
+ * line for each of the best few root moves at the end of each iteration,
+ * ranked from 1 for the best. Otherwise it reports only the line of its
+ * best move.
+ *
+ * <p>
+ * The score is from the point of view of the side to move at the root. The
+ * moves are packed moves, the first of which is the root move. The rest are
+ * read from the transposition table, so a line may be shorter than the
+ * depth it was searched to.
+ */
+public final class PrincipalVariation {
+
+    private final int rank;
+    private final int depth;
+    private final int score;
+    private final int[] moves;
+
+    /**
+     * A public constructor for a {@code PrincipalVariation}.
+     *
+     * @param rank the rank of the line, from 1 for the best
+     * @param depth the depth the line was searched to
+     * @param score the score of the line
+     * @param moves the packed moves of the line, from the root move
+     */
+    public PrincipalVariation(final int rank, final int depth, final int score, final int[] moves){
+        this.rank = rank;
+        this.depth = depth;
+        this.score = score;
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Exposes the rank of the line.
+     *
+     * @return the rank, from 1 for the best
+     */
+    public int getRank(){
+        return this.rank;
+    }
+
+    /**
+     * Exposes the depth the line was searched to.
+     *
+     * @return the depth
+     */
+    public int getDepth(){
+        return this.depth;
+    }
+
+    /**
+     * Exposes the score of the line.
+     *
+     * @return the score, from the point of view of the side to move
+     */
+    public int getScore(){
+        return this.score;
+    }
+
+    /**
+     * Exposes the root move of the line.
+     *
+     * @return the packed root move
+     */
+    public int getMove(){
+        return this.moves[0];
+    }
+
+    /**
+     * Exposes the moves of the line.
+     *
+     * @return a copy of the packed moves, from the root move
+     */
+    public int[] getMoves(){
+        return Arrays.copyOf(this.moves, this.moves.length);
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public String toString(){
+        final StringBuilder builder = new StringBuilder();
+        builder.append(this.rank).append(". depth ").append(this.depth).append(" score ").append(this.score);
+        for(final int move: this.moves) builder.append(' ').append(PackedMove.toString(move));
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,291 @@
+package Opponent;
+
+import Engine.Board.SearchPosition;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Search Control
+ *
+ * <p>
+ * The limits of one search, and the means to stop it from another thread. A
+ * {@code SearchControl} carries a depth limit, a node limit and a time limit,
+ * any of which may be left unset, and a stop flag. The search polls it every
+ * few thousand nodes, so a call to {@link #stop()} is answered within
+ * milliseconds, and the search still returns the best move it has found.
+ *
+ * <p>
+ * The time limit is counted from {@link #start()}. A search starts the clock
+ * of its control itself, unless it is pondering: then the clock starts only
+ * when the caller reports a ponder hit by starting it. Until the clock
+ * starts, neither the node limit nor the time limit applies.
+ *
+ * <p>
+ * The {@link SearchStats} of the search are kept here as well, so the
+ * caller finds them alongside the move once the search returns, together
+ * with the ranked lines of the last completed iteration.
+ *
+ * <p>
+ * A {@code SearchControl} is good for one search. Once stopped, it stays
+ * stopped, so a stop which comes before the search has even begun is not
+ * lost.
+ */
+public final class SearchControl {
+
+    /**
+     * The greatest depth limit. The plies of a {@code SearchPosition} beyond
+     * it are left to the quiescence search, and to the helpers, which search
+     * one ply deeper than the main search.
+     */
+    public static final int MAX_DEPTH = SearchPosition.MAX_PLY / 2;
+
+    /**
+     * The depth limit, or 0 if there is none.
+     */
+    private final int depthLimit;
+
+    /**
+     * The node limit, or 0 if there is none.
+     */
+    private final long nodeLimit;
+
+    /**
+     * The time limit in milliseconds, or 0 if there is none.
+     */
+    private final long timeLimit;
+
+    /**
+     * The number of nodes counted since the clock started, by every thread
+     * of the search.
+     */
+    private final AtomicLong nodes;
+
+    /**
+     * The statistics of the search.
+     */
+    private final SearchStats stats;
+
+    /**
+     * The ranked lines of the last completed iteration.
+     */
+    private volatile List<PrincipalVariation> lines;
+
+    /**
+     * The time at which the search runs out of time, in
+     * {@code System.nanoTime()} nanoseconds.
+     */
+    private volatile long deadline;
+
+    /**
+     * Whether or not the clock has started.
+     */
+    private volatile boolean isStarted;
+
+    /**
+     * Whether or not the search has been told to stop.
+     */
+    private volatile boolean isStopped;
+
+    /*
+     * A private constructor for a SearchControl, used by its Builder.
+     */
+    private SearchControl(final Builder builder){
+        this.depthLimit = builder.depthLimit;
+        this.nodeLimit = builder.nodeLimit;
+        this.timeLimit = builder.timeLimit;
+        this.nodes = new AtomicLong();
+        this.stats = new SearchStats();
+        this.lines = Collections.emptyList();
+        this.deadline = Long.MAX_VALUE;
+    }
+
+    /**
+     * A method to build a {@code SearchControl} without limits.
+     *
+     * @return a {@code SearchControl} which only stops when told to
+     */
+    public static SearchControl unlimited(){
+        return new Builder().build();
+    }
+
+    /**
+     * A method to stop the search, from any thread.
+     */
+    public void stop(){
+        this.isStopped = true;
+    }
+
+    /**
+     * A method to determine whether or not the search has been told to stop.
+     *
+     * @return whether or not the search has been told to stop
+     */
+    public boolean isStopped(){
+        return this.isStopped;
+    }
+
+    /**
+     * A method to start the clock, if it has not started already.
+     */
+    public void start(){
+        if(this.isStarted) return;
+        this.deadline = this.timeLimit == 0? Long.MAX_VALUE: System.nanoTime() + this.timeLimit * 1000000L;
+        this.isStarted = true;
+    }
+
+    /**
+     * Exposes the depth limit.
+     *
+     * @return the depth limit, or 0 if there is none
+     */
+    public int getDepthLimit(){
+        return this.depthLimit;
+    }
+
+    /**
+     * A method to find the depth a search should deepen to, given the depth
+     * it keeps on its own. The depth limit comes first, if it is set. A
+     * search with a node or time limit but no depth limit deepens until its
+     * budget runs out, as far as {@link #MAX_DEPTH}. Otherwise, the search
+     * keeps its own depth.
+     *
+     * @param depth the depth of the search
+     * @return the depth to deepen to
+     */
+    public int getDepthLimit(final int depth){
+        if(this.depthLimit != 0) return this.depthLimit;
+        if(this.nodeLimit != 0 || this.timeLimit != 0) return MAX_DEPTH;
+        return Math.min(depth, MAX_DEPTH);
+    }
+
+    /**
+     * Exposes the statistics of the search, which are complete once the
+     * search has returned.
+     *
+     * @return the {@code SearchStats} of the search
+     */
+    public SearchStats getStats(){
+        return this.stats;
+    }
+
+    /**
+     * Exposes the ranked lines of the last completed iteration: only the
+     * best line, or the best few in multi-PV mode.
+     *
+     * @return the lines, best first, or an empty list if no iteration has completed
+     */
+    public List<PrincipalVariation> getLines(){
+        return this.lines;
+    }
+
+    /*
+     * This method records the ranked lines of a completed iteration.
+     */
+    void setLines(final List<PrincipalVariation> lines){
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Exposes the number of nodes counted since the clock started.
+     *
+     * @return the number of nodes
+     */
+    public long getNodes(){
+        return this.nodes.get();
+    }
+
+    /*
+     * This method counts nodes searched by one of the threads of the search,
+     * and determines whether or not the search is over its node or time
+     * limit.
+     */
+    boolean count(final int nodeCount){
+        if(!this.isStarted) return false;
+        final long total = this.nodes.addAndGet(nodeCount);
+        return this.nodeLimit != 0 && total >= this.nodeLimit || System.nanoTime() >= this.deadline;
+    }
+
+    /*
+     * This method determines whether or not the search has been told to stop
+     * or is over its node or time limit, without counting any nodes.
+     */
+    boolean isExhausted(){
+        return this.isStopped || count(0);
+    }
+
+    /*
+     * This method determines whether or not at least half of the time limit
+     * remains, so that another iteration could finish in time.
+     */
+    boolean hasTimeForIteration(){
+        return this.timeLimit == 0 || !this.isStarted ||
+                (this.deadline - System.nanoTime()) * 2 >= this.timeLimit * 1000000L;
+    }
+
+    /**
+     * Builder
+     *
+     * <p>
+     * A builder for a {@code SearchControl}. Every limit is unset unless it
+     * is given.
+     */
+    public static final class Builder {
+
+        private int depthLimit;
+        private long nodeLimit;
+        private long timeLimit;
+
+        /**
+         * A method to set the depth limit.
+         *
+         * @param depthLimit the depth limit, from 1 to {@link #MAX_DEPTH}, or 0 for none
+         * @return the instance
+         */
+        public Builder setDepthLimit(final int depthLimit){
+            if(depthLimit < 0) throw new IllegalArgumentException("The depth limit may not be negative.");
+            if(depthLimit > MAX_DEPTH)
+                throw new IllegalArgumentException("The depth limit may not exceed " + MAX_DEPTH + ".");
+            this.depthLimit = depthLimit;
+            return this;
+        }
+
+        /**
+         * A method to set the node limit. The first root move is always
+         * scored, so that there is a move to play.
+         *
+         * @param nodeLimit the node limit, or 0 for none
+         * @return the instance
+         */
+        public Builder setNodeLimit(final long nodeLimit){
+            if(nodeLimit < 0) throw new IllegalArgumentException("The node limit may not be negative.");
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        /**
+         * A method to set the time limit. The first root move is always
+         * scored, so that there is a move to play.
+         *
+         * @param timeLimit the time limit in milliseconds, or 0 for none
+         * @return the instance
+         */
+        public Builder setTimeLimit(final long timeLimit){
+            if(timeLimit < 0) throw new IllegalArgumentException("The time limit may not be negative.");
+            this.timeLimit = timeLimit;
+            return this;
+        }
+
+        /**
+         * A method to build the {@code SearchControl}.
+         *
+         * @return the {@code SearchControl}
+         */
+        public SearchControl build(){
+            return new SearchControl(this);
+        }
+
+    }
+
+}
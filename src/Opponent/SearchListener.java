@@ -0,0 +1,61 @@
+package Opponent;
+
+import Engine.Board.Move;
+
+/**
+ * Search Listener
+ *
+ * <p>
+ * A listener to the progress of a search, for monitoring. Each method is
+ * called on the thread of the search, with the {@link SearchStats} of the
+ * search, so a listener should return quickly and should not keep the
+ * stats beyond the call unless it copies what it needs.
+ */
+public interface SearchListener {
+
+    /**
+     * A method called as each iteration of the search completes.
+     *
+     * @param stats the stats of the search so far
+     */
+    default void iterationCompleted(final SearchStats stats) {
+    }
+
+    /**
+     * A method called as each line of an iteration is found, in order of
+     * rank: only the best line, or the best few in multi-PV mode.
+     *
+     * @param line the line found
+     */
+    default void lineCompleted(final PrincipalVariation line) {
+    }
+
+    /**
+     * A method called as the search returns its move.
+     *
+     * @param move the move chosen
+     * @param stats the stats of the whole search
+     */
+    default void searchCompleted(final Move move, final SearchStats stats) {
+    }
+
+    /**
+     * A method called by the caller of a pondering search, as it starts the
+     * search on the board after the reply it expects.
+     *
+     * @param reply the reply expected
+     */
+    default void ponderStarted(final Move reply) {
+    }
+
+    /**
+     * A method called by the caller of a pondering search, as the actual
+     * reply is played: on a hit the search carries on, and on a miss it is
+     * stopped.
+     *
+     * @param isHit whether or not the actual reply was the one expected
+     */
+    default void ponderFinished(final boolean isHit) {
+    }
+
+}
@@ -0,0 +1,340 @@
+package Opponent;
+
+import Engine.Board.SearchPosition;
+
+/**
+ * Search Stats
+ *
+ * <p>
+ * The statistics of one search, for monitoring the health of the engine.
+ * A {@code SearchStats} counts the nodes searched, the part of them searched
+ * by the quiescence search, the probes of the transposition table and the
+ * hits among them, and the beta cutoffs of the main search and the part of
+ * them caused by the first move searched. It also records the depth, the
+ * time and the node count of each completed iteration, from which it
+ * derives the effective branching factor.
+ *
+ * <p>
+ * Each search thread counts into a {@code SearchStats} of its own with
+ * plain field increments, so the hot loop neither allocates nor contends.
+ * The counts of the helper threads are added in when the search ends, and
+ * the number of helpers and the nodes they searched are kept apart too. The
+ * iterations are recorded by the main search, into arrays allocated once.
+ *
+ * <p>
+ * The {@code SearchStats} of a search is found through the
+ * {@link SearchControl} of the search once it returns, and is passed to
+ * each {@link SearchListener} as the search goes.
+ */
+public final class SearchStats {
+
+    /**
+     * The counts of the search.
+     */
+    private long nodes;
+    private long quiescenceNodes;
+    private long tableProbes;
+    private long tableHits;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    /**
+     * The number of helper threads of the search, and the part of the nodes
+     * which they searched.
+     */
+    private int helperCount;
+    private long helperNodes;
+
+    /**
+     * The number of entries of the current generation per thousand slots of
+     * the transposition table, sampled at the end of the search.
+     */
+    private int hashfull;
+
+    /**
+     * The depth, the elapsed time in nanoseconds and the total node count at
+     * the end of each completed iteration.
+     */
+    private final int[] iterationDepths;
+    private final long[] iterationTimes;
+    private final long[] iterationNodes;
+    private int iterationCount;
+
+    /**
+     * The time at which the search began, in {@code System.nanoTime()}
+     * nanoseconds, and the time it took.
+     */
+    private long startTime;
+    private long elapsedTime;
+
+    /**
+     * A public constructor for an empty {@code SearchStats}.
+     */
+    public SearchStats(){
+        this.iterationDepths = new int[SearchPosition.MAX_PLY];
+        this.iterationTimes = new long[SearchPosition.MAX_PLY];
+        this.iterationNodes = new long[SearchPosition.MAX_PLY];
+        this.startTime = System.nanoTime();
+    }
+
+    /*
+     * This method empties the stats and starts the clock, at the start of a
+     * search.
+     */
+    void reset(){
+        nodes = 0;
+        quiescenceNodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        helperCount = 0;
+        helperNodes = 0;
+        hashfull = 0;
+        iterationCount = 0;
+        elapsedTime = 0;
+        startTime = System.nanoTime();
+    }
+
+    /*
+     * This method counts a node, and returns the number of nodes so far.
+     */
+    long countNode(){
+        return ++nodes;
+    }
+
+    /*
+     * This method counts a node of the quiescence search, which has been
+     * counted as a node already.
+     */
+    void countQuiescenceNode(){
+        quiescenceNodes++;
+    }
+
+    /*
+     * This method counts a probe of the transposition table.
+     */
+    void countProbe(final boolean isHit){
+        tableProbes++;
+        if(isHit) tableHits++;
+    }
+
+    /*
+     * This method counts a beta cutoff of the main search.
+     */
+    void countCutoff(final boolean isFirstMove){
+        cutoffs++;
+        if(isFirstMove) firstMoveCutoffs++;
+    }
+
+    /*
+     * This method adds the counts of another thread of the search.
+     */
+    void add(final SearchStats other){
+        nodes += other.nodes;
+        quiescenceNodes += other.quiescenceNodes;
+        tableProbes += other.tableProbes;
+        tableHits += other.tableHits;
+        cutoffs += other.cutoffs;
+        firstMoveCutoffs += other.firstMoveCutoffs;
+    }
+
+    /*
+     * This method adds the counts of a helper thread of the search.
+     */
+    void addHelper(final SearchStats helper){
+        add(helper);
+        helperCount++;
+        helperNodes += helper.nodes;
+    }
+
+    /*
+     * This method records the end of an iteration, with the nodes searched
+     * so far by the helper threads, which are not yet added in.
+     */
+    void completeIteration(final int depth, final long helperNodes){
+        if(iterationCount == iterationDepths.length) return;
+        iterationDepths[iterationCount] = depth;
+        iterationTimes[iterationCount] = System.nanoTime() - startTime;
+        iterationNodes[iterationCount] = nodes + helperNodes;
+        iterationCount++;
+    }
+
+    /*
+     * This method records the end of the search.
+     */
+    void complete(final int hashfull){
+        this.hashfull = hashfull;
+        this.elapsedTime = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Exposes the number of nodes searched.
+     *
+     * @return the number of nodes
+     */
+    public long getNodes(){
+        return nodes;
+    }
+
+    /**
+     * Exposes the number of helper threads which searched alongside the
+     * main search.
+     *
+     * @return the number of helpers, or 0 if the search ran alone
+     */
+    public int getHelperCount(){
+        return helperCount;
+    }
+
+    /**
+     * Exposes the number of nodes searched by the helper threads, which are
+     * counted among the nodes searched.
+     *
+     * @return the number of helper nodes
+     */
+    public long getHelperNodes(){
+        return helperNodes;
+    }
+
+    /**
+     * Exposes the number of nodes searched by the quiescence search.
+     *
+     * @return the number of quiescence nodes
+     */
+    public long getQuiescenceNodes(){
+        return quiescenceNodes;
+    }
+
+    /**
+     * Exposes the number of probes of the transposition table.
+     *
+     * @return the number of probes
+     */
+    public long getTableProbes(){
+        return tableProbes;
+    }
+
+    /**
+     * Exposes the number of probes of the transposition table which found an
+     * entry.
+     *
+     * @return the number of hits
+     */
+    public long getTableHits(){
+        return tableHits;
+    }
+
+    /**
+     * Exposes the number of beta cutoffs of the main search.
+     *
+     * @return the number of cutoffs
+     */
+    public long getCutoffs(){
+        return cutoffs;
+    }
+
+    /**
+     * A method to calculate the fraction of beta cutoffs caused by the first
+     * move searched, a measure of move ordering.
+     *
+     * @return the first-move cutoff rate, or 0 if there were no cutoffs
+     */
+    public double getFirstMoveCutoffRate(){
+        return cutoffs == 0? 0: (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * A method to calculate the effective branching factor: the ratio of the
+     * nodes of the last completed iteration to the nodes of the one before.
+     *
+     * @return the effective branching factor, or 0 if fewer than two iterations completed
+     */
+    public double getEffectiveBranchingFactor(){
+        if(iterationCount < 2) return 0;
+        final long previous = getIterationNodes(iterationCount - 2);
+        return previous == 0? 0: (double) getIterationNodes(iterationCount - 1) / previous;
+    }
+
+    /**
+     * Exposes the number of entries of the current generation per thousand
+     * slots of the transposition table, at the end of the search.
+     *
+     * @return the fullness of the table per mille
+     */
+    public int getHashfull(){
+        return hashfull;
+    }
+
+    /**
+     * Exposes the number of completed iterations.
+     *
+     * @return the number of iterations
+     */
+    public int getIterationCount(){
+        return iterationCount;
+    }
+
+    /**
+     * Exposes the depth of a completed iteration.
+     *
+     * @param iteration the index of the iteration, from 0
+     * @return the depth of the iteration
+     */
+    public int getIterationDepth(final int iteration){
+        return iterationDepths[iteration];
+    }
+
+    /**
+     * Exposes the time taken by a completed iteration.
+     *
+     * @param iteration the index of the iteration, from 0
+     * @return the time of the iteration in nanoseconds
+     */
+    public long getIterationTime(final int iteration){
+        return iterationTimes[iteration] - (iteration == 0? 0: iterationTimes[iteration - 1]);
+    }
+
+    /**
+     * Exposes the number of nodes searched during a completed iteration, by
+     * the main search and by any helper threads.
+     *
+     * @param iteration the index of the iteration, from 0
+     * @return the number of nodes of the iteration
+     */
+    public long getIterationNodes(final int iteration){
+        return iterationNodes[iteration] - (iteration == 0? 0: iterationNodes[iteration - 1]);
+    }
+
+    /**
+     * Exposes the time taken by the search, or so far if it has not ended.
+     *
+     * @return the time of the search in nanoseconds
+     */
+    public long getElapsedTime(){
+        return elapsedTime != 0? elapsedTime: System.nanoTime() - startTime;
+    }
+
+    /**
+     * A method to calculate the number of nodes searched per second.
+     *
+     * @return the nodes per second
+     */
+    public long getNodesPerSecond(){
+        return (long) (nodes * 1.0e9 / Math.max(getElapsedTime(), 1));
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    public String toString(){
+        return String.format(
+                "%d nodes (%d quiescence), %d nps, table %d/%d hits, %d/1000 full, " +
+                "first-move cutoffs %.1f%%, branching factor %.2f",
+                nodes, quiescenceNodes, getNodesPerSecond(), tableHits, tableProbes, hashfull,
+                getFirstMoveCutoffRate() * 100, getEffectiveBranchingFactor()
+        ) + (helperCount == 0? "": String.format(", %d helper nodes on %d threads", helperNodes, helperCount));
+    }
+
+}
@@ -0,0 +1,311 @@
+package Opponent;
+
+import Engine.Board.PackedMove;
+import Engine.Board.SearchPosition;
+
+import java.util.Arrays;
+
+/**
+ * Transposition Table
+ *
+ * <p>
+ * A fixed-size hash table of search results, keyed by the Zobrist key of a
+ * position. The table is allocated once, as two primitive {@code long}
+ * arrays, and is kept from one search to the next: rather than being
+ * reallocated, it ages its entries with a generation number which advances
+ * at the start of each search.
+ *
+ * <p>
+ * Each entry packs everything the search needs into a single {@code long}:
+ *
+ * <pre>
+ *  bits  0 - 18   best move (a packed move), or 0
+ *  bits 19 - 46   score
+ *  bits 47 - 54   depth, offset by 128
+ *  bits 55 - 56   bound (upper, lower or exact)
+ *  bits 57 - 63   generation
+ * </pre>
+ *
+ * <p>
+ * The generation wraps around only after 128 searches, by which time an
+ * entry that old has long since been overwritten.
+ *
+ * <p>
+ * A mate score counts for more the more depth remains at the mated node,
+ * so it depends on the depth of the node which scored it. A mate score is
+ * therefore stored by its distance from the node that stores it, and is
+ * turned back into a score for the remaining depth of the node that
+ * probes it, so that a mate is worth the same wherever it is found.
+ *
+ * <p>
+ * The slots are grouped into buckets of two. The first slot of a bucket is
+ * depth-preferred: it is replaced only by a result of at least the same
+ * depth, or when its own result is left over from an earlier search. The
+ * second slot is always replaced. Deep results, which are expensive to
+ * recompute, therefore survive the flood of shallow results beneath them.
+ *
+ * <p>
+ * Each slot stores the key XOR-ed with the data next to the data itself.
+ * A probe recovers the key by XOR-ing the two, so a slot whose two halves
+ * were written by different stores simply fails to match, and the table
+ * needs no locking.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The result of a probe which finds no entry. No stored entry is 0, since
+     * the bound of every stored entry is non-zero.
+     */
+    public static final long NO_ENTRY = 0L;
+
+    /**
+     * The bound types. An upper bound comes from a node where no move raised
+     * alpha, a lower bound from a node cut off by beta, and an exact score
+     * from a node whose score fell inside the window.
+     */
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    /**
+     * The size of the table in megabytes if none is given.
+     */
+    public static final int DEFAULT_SIZE_IN_MEGABYTES = 64;
+
+    /**
+     * The number of bytes per slot: one key and one data {@code long}.
+     */
+    private static final int BYTES_PER_SLOT = 2 * Long.BYTES;
+
+    /**
+     * The number of slots per bucket.
+     */
+    private static final int BUCKET_SIZE = 2;
+
+    /**
+     * The number of slots sampled by {@link #hashfull()}.
+     */
+    private static final int SAMPLE_SIZE = 1000;
+
+    /**
+     * Field offsets, widths and masks of the packed entry.
+     */
+    private static final int MOVE_MASK = (1 << 19) - 1;
+    private static final int SCORE_SHIFT = 19;
+    private static final int SCORE_BITS = 28;
+    private static final int SCORE_LIMIT = (1 << (SCORE_BITS - 1)) - 1;
+    private static final int DEPTH_SHIFT = 47;
+    private static final int DEPTH_OFFSET = 128;
+    private static final int BOUND_SHIFT = 55;
+    private static final int GENERATION_SHIFT = 57;
+    private static final int GENERATION_MASK = 127;
+
+    /**
+     * The part of a mate score worth one ply of remaining depth at the mated
+     * node, and the distance from which a mate is stored as a distance from
+     * its node.
+     *
+     * @see BoardEvaluator#depthBonus(int)
+     */
+    private static final int MATE_UNIT = BoardEvaluator.CHECK_MATE_BONUS * BoardEvaluator.DEPTH_BONUS;
+    private static final int MATE_HORIZON = SearchPosition.MAX_PLY;
+
+    /**
+     * The key of each slot, XOR-ed with its data.
+     */
+    private final long[] keys;
+
+    /**
+     * The data of each slot.
+     */
+    private final long[] data;
+
+    /**
+     * The mask which maps a key onto the first slot of its bucket.
+     */
+    private final int bucketMask;
+
+    /**
+     * The generation of the current search.
+     */
+    private int generation;
+
+    /**
+     * A public constructor for a {@code TranspositionTable}. The number of
+     * slots is the largest power of two which fits in the given size.
+     *
+     * @param sizeInMegabytes the size of the table in megabytes, at least 1
+     */
+    public TranspositionTable(final int sizeInMegabytes) {
+        if(sizeInMegabytes < 1) throw new IllegalArgumentException("The table needs at least one megabyte.");
+        final long slots = Long.highestOneBit(((long) sizeInMegabytes << 20) / BYTES_PER_SLOT);
+        final int slotCount = (int) Math.min(slots, 1 << 30);
+        this.keys = new long[slotCount];
+        this.data = new long[slotCount];
+        this.bucketMask = slotCount - BUCKET_SIZE;
+        this.generation = 0;
+    }
+
+    /**
+     * A method to advance the generation at the start of a search. Entries of
+     * earlier generations are kept for probing, but are replaced first.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * A method to empty the table.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        Arrays.fill(this.data, 0L);
+    }
+
+    /**
+     * A method to look up the entry of a position.
+     *
+     * @param key the Zobrist key of the position
+     * @return the packed entry, or {@code NO_ENTRY} if the position is not stored
+     */
+    public long probe(final long key) {
+        final int first = (int) key & this.bucketMask;
+        for(int i = first; i < first + BUCKET_SIZE; i++) {
+            final long entry = this.data[i];
+            if((this.keys[i] ^ entry) == key && entry != NO_ENTRY) return entry;
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * A method to store the result of a search. If the position is already
+     * stored, its slot is overwritten, keeping the old best move when the new
+     * result has none.
+     *
+     * @param key the Zobrist key of the position
+     * @param move the best move found, or {@code PackedMove.NO_MOVE}
+     * @param score the score of the position, for the given depth
+     * @param depth the depth of the search, between -128 and 127
+     * @param bound the bound type of the score
+     */
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final int first = (int) key & this.bucketMask;
+        final int second = first + 1;
+        int slot;
+        if(matches(first, key)) slot = first;
+        else if(matches(second, key)) slot = second;
+        else {
+            final long deepest = this.data[first];
+            slot = deepest == NO_ENTRY || generation(deepest) != this.generation ||
+                    depth >= depth(deepest)? first: second;
+        }
+        int bestMove = move;
+        if(bestMove == PackedMove.NO_MOVE && matches(slot, key)) bestMove = move(this.data[slot]);
+        final int tableScore = Math.max(-SCORE_LIMIT, Math.min(SCORE_LIMIT, toTableScore(score, depth)));
+        final long entry = (bestMove & MOVE_MASK) |
+                ((tableScore & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT) |
+                ((long) (depth + DEPTH_OFFSET) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) this.generation << GENERATION_SHIFT);
+        this.keys[slot] = key ^ entry;
+        this.data[slot] = entry;
+    }
+
+    /**
+     * A method to estimate how full the table is with entries of the current
+     * generation.
+     *
+     * @return the number of current entries per thousand slots
+     */
+    public int hashfull() {
+        final int sample = Math.min(SAMPLE_SIZE, this.data.length);
+        int count = 0;
+        for(int i = 0; i < sample; i++) {
+            final long entry = this.data[i];
+            if(entry != NO_ENTRY && generation(entry) == this.generation) count++;
+        }
+        return count * 1000 / sample;
+    }
+
+    /*
+     * A method to determine whether or not a slot holds the given key.
+     */
+    private boolean matches(final int slot, final long key) {
+        final long entry = this.data[slot];
+        return entry != NO_ENTRY && (this.keys[slot] ^ entry) == key;
+    }
+
+    /**
+     * A method to unpack the best move of an entry.
+     *
+     * @param entry the packed entry
+     * @return the best move, or {@code PackedMove.NO_MOVE}
+     */
+    public static int move(final long entry) {
+        return (int) entry & MOVE_MASK;
+    }
+
+    /**
+     * A method to unpack the score of an entry for a node with the given
+     * remaining depth.
+     *
+     * @param entry the packed entry
+     * @param depth the remaining depth of the probing node
+     * @return the score
+     */
+    public static int score(final long entry, final int depth) {
+        return fromTableScore((int) ((entry << (Long.SIZE - SCORE_SHIFT - SCORE_BITS)) >> (Long.SIZE - SCORE_BITS)),
+                depth);
+    }
+
+    /*
+     * A method to turn a mate score, which counts the depth remaining at the
+     * mated node, into one which counts the distance of the mate from the
+     * node with the given remaining depth.
+     */
+    private static int toTableScore(final int score, final int depth) {
+        if(!BoardEvaluator.isMateScore(score)) return score;
+        return score + Integer.signum(score) * (MATE_HORIZON - depth) * MATE_UNIT;
+    }
+
+    /*
+     * A method to turn a mate score stored by its distance back into one for
+     * the node with the given remaining depth. A mate beyond the horizon of
+     * that node still counts as a mate, with the least remaining depth.
+     */
+    private static int fromTableScore(final int score, final int depth) {
+        if(!BoardEvaluator.isMateScore(score)) return score;
+        final int sign = Integer.signum(score);
+        final int remaining = (Math.abs(score) + MATE_UNIT / 2) / MATE_UNIT;
+        final int shift = Math.min(MATE_HORIZON - depth, remaining - 1);
+        return score - sign * shift * MATE_UNIT;
+    }
+
+    /**
+     * A method to unpack the depth of an entry.
+     *
+     * @param entry the packed entry
+     * @return the depth
+     */
+    public static int depth(final long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF) - DEPTH_OFFSET;
+    }
+
+    /**
+     * A method to unpack the bound type of an entry.
+     *
+     * @param entry the packed entry
+     * @return {@code UPPER_BOUND}, {@code LOWER_BOUND} or {@code EXACT}
+     */
+    public static int bound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+
+    /*
+     * A method to unpack the generation of an entry.
+     */
+    private static int generation(final long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+}